@@ -2,6 +2,7 @@ plugins {
     `java-library`
     application
     id("com.github.johnrengelman.shadow") apply true
+    id("org.graalvm.buildtools.native")
 }
 
 sourceSets {
@@ -14,6 +15,8 @@ sourceSets {
 
 dependencies {
     api(project(":converter"))
+    implementation("com.google.code.gson:gson:2.10.1")
+    implementation("commons-io:commons-io:2.11.0")
 }
 
 application {
@@ -22,4 +25,238 @@ application {
 
 tasks.withType<com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar> {
     archiveFileName.set("PackConverter.jar")
-}
\ No newline at end of file
+}
+
+// Class data sharing: a launcher directory with the jar, start scripts and an archive of the
+// classes loaded while converting a sample pack, so later runs can map them instead of loading them.
+val launcherDirectory = layout.buildDirectory.dir("launcher")
+val cdsDirectory = layout.buildDirectory.dir("cds")
+
+// The archive only works with the JDK it was created by, which is the one running Gradle unless set
+val cdsJava = providers.gradleProperty("cdsJava")
+    .orElse(File(System.getProperty("java.home"), "bin/java").absolutePath)
+
+val cdsSamplePack = tasks.register<Zip>("cdsSamplePack") {
+    description = "Packages the sample pack the class data sharing archive is trained on."
+    from("src/cds/sample-pack")
+    archiveFileName.set("sample-pack.zip")
+    destinationDirectory.set(cdsDirectory)
+}
+
+val launcher = tasks.register<Sync>("launcher") {
+    group = "distribution"
+    description = "Assembles the jar and start scripts into build/launcher."
+    from(tasks.named("shadowJar"))
+    from("src/launcher") {
+        filePermissions {
+            unix("rwxr-xr-x")
+        }
+    }
+    into(launcherDirectory)
+    preserve {
+        include("PackConverter.jsa", "vanilla-pack.zip")
+    }
+}
+
+val cdsArchive = tasks.register<Exec>("cdsArchive") {
+    group = "distribution"
+    description = "Creates the class data sharing archive for the launcher by converting a sample pack."
+    dependsOn(launcher)
+
+    val jar = launcherDirectory.map { it.file("PackConverter.jar") }
+    val archive = launcherDirectory.map { it.file("PackConverter.jsa") }
+    val samplePack = cdsSamplePack.flatMap { it.archiveFile }
+
+    inputs.files(tasks.named("shadowJar"))
+    inputs.file(samplePack)
+    inputs.property("java", cdsJava)
+    outputs.file(archive)
+
+    // Runs from the launcher directory, so the vanilla pack is downloaded once and kept next to the jar
+    workingDir(launcherDirectory)
+    executable(cdsJava.get())
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "-XX:ArchiveClassesAtExit=${archive.get().asFile.absolutePath}",
+            "-jar", jar.get().asFile.absolutePath,
+            samplePack.get().asFile.absolutePath
+        )
+    })
+
+    doFirst {
+        archive.get().asFile.delete()
+    }
+}
+
+tasks.register("startupBenchmark") {
+    group = "verification"
+    description = "Compares the time until the textures are written by the launcher with and without the class data sharing archive."
+    dependsOn(cdsArchive)
+
+    val runs = providers.gradleProperty("startupBenchmarkRuns").map { it.toInt() }.orElse(5)
+    val jar = launcherDirectory.map { it.file("PackConverter.jar").asFile }
+    val archive = launcherDirectory.map { it.file("PackConverter.jsa").asFile }
+    val samplePack = cdsSamplePack.flatMap { it.archiveFile }.map { it.asFile }
+    val workingDirectory = launcherDirectory.map { it.asFile }
+    val java = cdsJava
+
+    doLast {
+        // Milliseconds until all of the sample pack's textures are written, and until the process exits
+        fun measure(vararg jvmArgs: String): Pair<Long, Long> {
+            val command = listOf(java.get()) + jvmArgs + listOf("-jar", jar.get().absolutePath, samplePack.get().absolutePath)
+            val start = System.nanoTime()
+            val process = ProcessBuilder(command)
+                .directory(workingDirectory.get())
+                .redirectErrorStream(true)
+                .start()
+
+            var texturesWritten = -1L
+            process.inputStream.bufferedReader().useLines { lines ->
+                lines.forEach { line ->
+                    if (texturesWritten < 0 && line.contains("Written textures!")) {
+                        texturesWritten = (System.nanoTime() - start) / 1_000_000
+                    }
+                }
+            }
+
+            val exit = process.waitFor()
+            val total = (System.nanoTime() - start) / 1_000_000
+            if (exit != 0 || texturesWritten < 0) {
+                throw GradleException("Benchmark run failed with exit code $exit: $command")
+            }
+
+            return texturesWritten to total
+        }
+
+        fun report(name: String, vararg jvmArgs: String) {
+            measure(*jvmArgs) // Warm up the file system cache
+            val results = (1..runs.get()).map { measure(*jvmArgs) }
+            val texturesWritten = results.map { it.first }.sorted()[results.size / 2]
+            val total = results.map { it.second }.sorted()[results.size / 2]
+            println("%-12s textures written %6d ms, total %6d ms (median of %d runs)".format(name, texturesWritten, total, results.size))
+        }
+
+        report("Default CDS")
+        report("App CDS", "-XX:SharedArchiveFile=${archive.get().absolutePath}", "-Xshare:auto")
+    }
+}
+
+// Native image: a standalone packconverter executable. Gson reads the schema classes and the vanilla
+// manifests reflectively and the converters are found through service files, which native-image can
+// only see when told about them. The static parts of that configuration live in
+// src/main/resources/META-INF/native-image, the schema classes are listed by nativeImageSchemaConfig.
+val nativeImageConfigDirectory = layout.buildDirectory.dir("generated/native-image")
+
+val nativeImageSchemaConfig = tasks.register("nativeImageSchemaConfig") {
+    description = "Generates the native-image reflection configuration for the pack schema and service providers."
+
+    val classpath = configurations.runtimeClasspath.get()
+    val configFile = nativeImageConfigDirectory.map { it.file("reflect-config.json") }
+
+    inputs.files(classpath)
+    outputs.file(configFile)
+
+    doLast {
+        val classes = sortedSetOf<String>()
+        val providers = sortedSetOf<String>()
+        classpath.filter { it.isFile && it.name.endsWith(".jar") }.forEach { jar ->
+            java.util.zip.ZipFile(jar).use { zip ->
+                zip.entries().asSequence().forEach { entry ->
+                    val name = entry.name
+                    if (name.startsWith("org/geysermc/pack/bedrock/resource/") && name.endsWith(".class")) {
+                        classes += name.removeSuffix(".class").replace('/', '.')
+                    } else if (name.startsWith("META-INF/services/org.geysermc.pack.") && !entry.isDirectory) {
+                        zip.getInputStream(entry).bufferedReader().readLines()
+                            .map { it.substringBefore('#').trim() }
+                            .filterTo(providers) { it.isNotEmpty() }
+                    }
+                }
+            }
+        }
+
+        // Gson sets the schema fields directly, the service loader only needs the constructors
+        val entries = classes.map {
+            """  {"name": "$it", "allDeclaredFields": true, "allDeclaredConstructors": true, "allDeclaredMethods": true}"""
+        } + providers.map {
+            """  {"name": "$it", "methods": [{"name": "<init>", "parameterTypes": []}]}"""
+        }
+
+        val file = configFile.get().asFile
+        file.parentFile.mkdirs()
+        file.writeText(entries.joinToString(",\n", "[\n", "\n]\n"))
+    }
+}
+
+graalvmNative {
+    binaries {
+        named("main") {
+            imageName.set("packconverter")
+            mainClass.set(application.mainClass)
+            configurationFileDirectories.from(nativeImageConfigDirectory)
+            buildArgs.addAll(
+                "--no-fallback",
+                "-Djava.awt.headless=true",
+                "--enable-url-protocols=https",
+                "-H:+ReportExceptionStackTraces"
+            )
+        }
+    }
+    // Reachability metadata for the JDK image and font code and third party libraries
+    metadataRepository {
+        enabled.set(true)
+    }
+}
+
+tasks.named("nativeCompile") {
+    dependsOn(nativeImageSchemaConfig)
+}
+
+tasks.register("nativeSmokeTest") {
+    group = "verification"
+    description = "Converts the sample pack with the native executable and checks the resulting .mcpack."
+
+    val executable = tasks.named<org.graalvm.buildtools.gradle.tasks.BuildNativeImageTask>("nativeCompile")
+        .flatMap { it.outputFile }
+    val samplePack = cdsSamplePack.flatMap { it.archiveFile }
+    val workingDirectory = layout.buildDirectory.dir("native-smoke")
+    // Set to an existing vanilla pack to run without downloading one
+    val vanillaPack = providers.gradleProperty("vanillaPack")
+
+    inputs.file(executable)
+    inputs.file(samplePack)
+
+    doLast {
+        val directory = workingDirectory.get().asFile
+        directory.deleteRecursively()
+        directory.mkdirs()
+        if (vanillaPack.isPresent) {
+            File(vanillaPack.get()).copyTo(File(directory, "vanilla-pack.zip"))
+        }
+
+        val pack = samplePack.get().asFile.copyTo(File(directory, "sample-pack.zip"))
+        val command = listOf(executable.get().asFile.absolutePath, pack.absolutePath)
+        val process = ProcessBuilder(command)
+            .directory(directory)
+            .redirectErrorStream(true)
+            .start()
+        val output = process.inputStream.bufferedReader().readText()
+        val exit = process.waitFor()
+        if (exit != 0) {
+            throw GradleException("Native conversion failed with exit code $exit:\n$output")
+        }
+
+        // Conversion errors are logged rather than failing the process, so check what was written
+        val mcpack = File(directory, "sample-pack.mcpack")
+        if (!mcpack.isFile) {
+            throw GradleException("Native conversion did not write ${mcpack.name}:\n$output")
+        }
+
+        val expected = listOf("manifest.json", "textures/blocks/stone.png", "textures/items/diamond.png", "texts/en_us.lang")
+        val missing = java.util.zip.ZipFile(mcpack).use { zip -> expected.filter { zip.getEntry(it) == null } }
+        if (missing.isNotEmpty()) {
+            throw GradleException("${mcpack.name} is missing $missing:\n$output")
+        }
+
+        println("Converted the sample pack with ${executable.get().asFile.name} (${mcpack.length() / 1024} KiB)")
+    }
+}
@@ -0,0 +1,17 @@
+@echo off
+rem Runs PackConverter, using the class data sharing archive next to the jar when there is one.
+rem The archive only applies to the jar and JDK it was created with, otherwise Java silently starts without it.
+setlocal
+set "DIR=%~dp0"
+
+if defined JAVA_HOME (
+    set "JAVA=%JAVA_HOME%\bin\java.exe"
+) else (
+    set "JAVA=java"
+)
+
+if exist "%DIR%PackConverter.jsa" (
+    "%JAVA%" -XX:SharedArchiveFile="%DIR%PackConverter.jsa" -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off %JAVA_OPTS% -jar "%DIR%PackConverter.jar" %*
+) else (
+    "%JAVA%" %JAVA_OPTS% -jar "%DIR%PackConverter.jar" %*
+)
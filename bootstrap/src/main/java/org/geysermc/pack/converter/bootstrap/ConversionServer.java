@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.bootstrap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.file.PathUtils;
+import org.geysermc.pack.converter.CancellationToken;
+import org.geysermc.pack.converter.ConversionJob;
+import org.geysermc.pack.converter.PackConverter;
+import org.geysermc.pack.converter.converter.Converters;
+import org.geysermc.pack.converter.util.DefaultLogListener;
+import org.geysermc.pack.converter.util.LogListener;
+import org.geysermc.pack.converter.util.VanillaPackProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long running conversion server, so the JVM, the vanilla pack and
+ * every other cache stay warm between conversions.
+ * <p>
+ * The server listens on a local HTTP endpoint:
+ * <ul>
+ *     <li>{@code POST /convert} converts the uploaded Java pack zip and responds with the mcpack</li>
+ *     <li>{@code POST /jobs} queues the uploaded Java pack zip and responds with the job id</li>
+ *     <li>{@code GET /jobs/<id>} gets the status of a job</li>
+ *     <li>{@code GET /jobs/<id>/result} downloads the mcpack of a finished job</li>
+ *     <li>{@code DELETE /jobs/<id>} removes a finished job and its files</li>
+ *     <li>{@code GET /health} gets the amount of running and queued conversions</li>
+ * </ul>
+ * At most {@code workers} packs are converted at once, and at most
+ * {@code queue} more are waiting; anything beyond that is rejected with
+ * {@code 503} rather than piling up.
+ */
+public class ConversionServer {
+    private static final Gson GSON = new Gson();
+
+    private final Settings settings;
+    private final LogListener logListener = new DefaultLogListener();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private PackConverter converter;
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+    private HttpServer server;
+
+    public ConversionServer(@NotNull Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Loads the vanilla pack and starts listening for requests.
+     *
+     * @throws IOException if the vanilla pack could not be loaded or the server could not be started
+     */
+    public void start() throws IOException {
+        Path vanillaPack = this.settings.vanillaPack();
+        if (Files.notExists(vanillaPack)) {
+            if (this.settings.vanillaJar() != null) {
+                VanillaPackProvider.createFromClientJar(this.settings.vanillaJar(), vanillaPack, this.logListener);
+            } else if (this.settings.offline()) {
+                throw new IOException("Vanilla pack " + vanillaPack + " does not exist, and no client jar was given to create it from while offline");
+            }
+        }
+
+        Files.createDirectories(this.settings.workDirectory());
+
+        this.converter = new PackConverter()
+                .vanillaPackPath(vanillaPack)
+                .converters(Converters.defaultConverters())
+                .logListener(this.logListener)
+                .timeout(this.settings.timeout() > 0 ? Duration.ofSeconds(this.settings.timeout()) : null)
+                .expiryPolicy(CancellationToken.ExpiryPolicy.FINISH_WITH_FALLBACKS)
+                .loadVanillaPack();
+
+        this.executor = new ThreadPoolExecutor(
+                this.settings.workers(), this.settings.workers(),
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, this.settings.queue()))
+        );
+
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PackConverter job cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.scheduleAtFixedRate(this::removeExpiredJobs, 1, 1, TimeUnit.MINUTES);
+
+        this.server = HttpServer.create(new InetSocketAddress(this.settings.host(), this.settings.port()), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/convert", exchange -> this.handle(exchange, this::handleConvert));
+        this.server.createContext("/jobs", exchange -> this.handle(exchange, this::handleJobs));
+        this.server.createContext("/health", exchange -> this.handle(exchange, this::handleHealth));
+        this.server.start();
+
+        this.logListener.info("Listening on http://" + this.settings.host() + ":" + this.settings.port() + " with " + this.settings.workers() + " workers");
+    }
+
+    /**
+     * Stops accepting requests and waits for running conversions to finish.
+     */
+    public void stop() {
+        this.server.stop(1);
+        this.executor.shutdown();
+        this.cleaner.shutdownNow();
+
+        try {
+            this.executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleConvert(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            this.respond(exchange, 405, error("Use POST to convert a pack"));
+            return;
+        }
+
+        Job job = this.receive(exchange);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            Future<?> future = this.submit(job);
+            if (future == null) {
+                this.respond(exchange, 503, error("Too many conversions queued, try again later"));
+                return;
+            }
+
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // The job holds the failure
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.respond(exchange, 503, error("Interrupted while converting"));
+                return;
+            }
+
+            if (job.status != Status.DONE) {
+                this.respond(exchange, 422, job.toJson());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("X-Conversion-Errors", Integer.toString(job.errors));
+            exchange.getResponseHeaders().set("X-Conversion-Skipped", Integer.toString(job.skipped));
+            this.respondFile(exchange, job.output());
+        } finally {
+            job.delete();
+        }
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String[] parts = path.substring("/jobs".length()).split("/");
+
+        // POST /jobs
+        if (parts.length <= 1) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                this.respond(exchange, 405, error("Use POST to queue a pack"));
+                return;
+            }
+
+            Job job = this.receive(exchange);
+            if (job == null) {
+                return;
+            }
+
+            if (this.submit(job) == null) {
+                job.delete();
+                this.respond(exchange, 503, error("Too many conversions queued, try again later"));
+                return;
+            }
+
+            this.jobs.put(job.id, job);
+            exchange.getResponseHeaders().set("Location", "/jobs/" + job.id);
+            this.respond(exchange, 202, job.toJson());
+            return;
+        }
+
+        Job job = this.jobs.get(parts[1]);
+        if (job == null) {
+            this.respond(exchange, 404, error("Unknown job " + parts[1]));
+            return;
+        }
+
+        boolean result = parts.length == 3 && parts[2].equals("result");
+        if (parts.length > 3 || (parts.length == 3 && !result)) {
+            this.respond(exchange, 404, error("Unknown path " + path));
+            return;
+        }
+
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (!result) {
+                    this.respond(exchange, 200, job.toJson());
+                } else if (job.status != Status.DONE) {
+                    this.respond(exchange, 409, job.toJson());
+                } else {
+                    exchange.getResponseHeaders().set("X-Conversion-Errors", Integer.toString(job.errors));
+                    exchange.getResponseHeaders().set("X-Conversion-Skipped", Integer.toString(job.skipped));
+                    this.respondFile(exchange, job.output());
+                }
+            }
+            case "DELETE" -> {
+                if (!job.finished()) {
+                    this.respond(exchange, 409, job.toJson());
+                    return;
+                }
+
+                this.jobs.remove(job.id);
+                job.delete();
+                this.respond(exchange, 200, job.toJson());
+            }
+            default -> this.respond(exchange, 405, error("Use GET or DELETE on a job"));
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("status", "ok");
+        json.addProperty("running", this.executor.getActiveCount());
+        json.addProperty("queued", this.executor.getQueue().size());
+        json.addProperty("workers", this.settings.workers());
+        json.addProperty("queue", this.settings.queue());
+        this.respond(exchange, 200, json);
+    }
+
+    @Nullable
+    private Job receive(HttpExchange exchange) throws IOException {
+        long length = -1;
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                this.respond(exchange, 400, error("Invalid Content-Length " + contentLength));
+                return null;
+            }
+        }
+
+        if (length > this.settings.maxUploadSize()) {
+            this.respond(exchange, 413, error("Packs can be at most " + this.settings.maxUploadSize() + " bytes"));
+            return null;
+        }
+
+        String id = UUID.randomUUID().toString();
+        Job job = new Job(id, packName(exchange.getRequestURI().getRawQuery(), id), this.settings.workDirectory());
+        Files.createDirectories(job.directory);
+
+        // Stop reading as soon as the upload goes over the limit, even if no length was sent
+        long read = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = exchange.getRequestBody(); OutputStream output = Files.newOutputStream(job.input())) {
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                read += count;
+                if (read > this.settings.maxUploadSize()) {
+                    break;
+                }
+
+                output.write(buffer, 0, count);
+            }
+        }
+
+        if (read > this.settings.maxUploadSize()) {
+            job.delete();
+            this.respond(exchange, 413, error("Packs can be at most " + this.settings.maxUploadSize() + " bytes"));
+            return null;
+        }
+
+        if (read == 0) {
+            job.delete();
+            this.respond(exchange, 400, error("No pack was uploaded"));
+            return null;
+        }
+
+        return job;
+    }
+
+    @Nullable
+    private Future<?> submit(Job job) {
+        try {
+            return this.executor.submit(() -> this.run(job));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        long start = System.nanoTime();
+
+        try {
+            ConversionJob conversion = this.converter.convert(job.input(), true, job.output());
+            conversion.pack();
+
+            job.errors = conversion.errors();
+            job.skipped = conversion.skipped().size();
+            job.status = Status.DONE;
+        } catch (Throwable t) {
+            this.logListener.error("Error converting job " + job.id, t);
+
+            job.message = t.getMessage() == null ? t.getClass().getName() : t.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = System.currentTimeMillis();
+            this.logListener.info("Job " + job.id + " " + job.status.name().toLowerCase() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    private void removeExpiredJobs() {
+        long expiry = System.currentTimeMillis() - this.settings.jobRetention() * 1000L;
+        this.jobs.values().removeIf(job -> {
+            if (job.finished() && job.finishedAt < expiry) {
+                job.delete();
+                return true;
+            }
+
+            return false;
+        });
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            handler.handle(exchange);
+        } catch (Throwable t) {
+            this.logListener.error("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), t);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonObject json) throws IOException {
+        byte[] body = GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private void respondFile(HttpExchange exchange, Path file) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/zip");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+        exchange.sendResponseHeaders(200, Files.size(file));
+        try (OutputStream output = exchange.getResponseBody()) {
+            Files.copy(file, output);
+        }
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", message);
+        return json;
+    }
+
+    // The name of the uploaded pack from the "name" query parameter, kept to characters safe in file names, or the fallback if there is none
+    @NotNull
+    private static String packName(@Nullable String query, @NotNull String fallback) {
+        if (query == null) {
+            return fallback;
+        }
+
+        for (String parameter : query.split("&")) {
+            if (!parameter.startsWith("name=")) {
+                continue;
+            }
+
+            String name;
+            try {
+                name = URLDecoder.decode(parameter.substring("name=".length()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+
+            name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+            if (name.endsWith(".zip") || name.endsWith(".mcpack")) {
+                name = name.substring(0, name.lastIndexOf('.'));
+            }
+
+            name = name.replaceAll("[^A-Za-z0-9 ._-]", "_").strip();
+            if (name.length() > 64) {
+                name = name.substring(0, 64);
+            }
+
+            return name.isEmpty() || name.startsWith(".") ? fallback : name;
+        }
+
+        return fallback;
+    }
+
+    /**
+     * Creates a server from command line arguments, in the form of
+     * {@code --name value} pairs and {@code --offline}.
+     *
+     * @param args the arguments
+     * @return the server
+     */
+    @NotNull
+    public static ConversionServer fromArgs(@NotNull String[] args) {
+        String host = "127.0.0.1";
+        int port = 8080;
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int queue = 16;
+        long maxUploadSize = 256L * 1024 * 1024;
+        long jobRetention = 60 * 60;
+        long timeout = 0;
+        Path workDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "packconverter-server");
+        Path vanillaPack = Paths.get("vanilla-pack.zip");
+        Path vanillaJar = null;
+        boolean offline = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--offline")) {
+                offline = true;
+                continue;
+            }
+
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+
+            String value = args[++i];
+            switch (arg) {
+                case "--host" -> host = value;
+                case "--port" -> port = Integer.parseInt(value);
+                case "--workers" -> workers = Integer.parseInt(value);
+                case "--queue" -> queue = Integer.parseInt(value);
+                case "--max-upload-size" -> maxUploadSize = Long.parseLong(value);
+                case "--job-retention" -> jobRetention = Long.parseLong(value);
+                case "--timeout" -> timeout = Long.parseLong(value);
+                case "--work-dir" -> workDirectory = Paths.get(value);
+                case "--vanilla-pack" -> vanillaPack = Paths.get(value);
+                case "--vanilla-jar" -> vanillaJar = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be at least 1, got " + workers);
+        }
+
+        return new ConversionServer(new Settings(host, port, workers, queue, maxUploadSize, jobRetention, timeout, workDirectory, vanillaPack, vanillaJar, offline));
+    }
+
+    /**
+     * The settings of a conversion server.
+     *
+     * @param host the address to listen on
+     * @param port the port to listen on
+     * @param workers the amount of packs converted at once
+     * @param queue the amount of packs that can wait for a worker
+     * @param maxUploadSize the maximum size of an uploaded pack, in bytes
+     * @param jobRetention how long finished jobs are kept, in seconds
+     * @param timeout how long a conversion may take before the rest of the pack is skipped, in seconds, or 0 for no limit
+     * @param workDirectory the directory uploads and converted packs are kept in
+     * @param vanillaPack the vanilla pack to convert against
+     * @param vanillaJar a client jar to create the vanilla pack from if it does not exist yet
+     * @param offline whether the vanilla pack must not be downloaded
+     */
+    public record Settings(@NotNull String host, int port, int workers, int queue, long maxUploadSize, long jobRetention, long timeout,
+                           @NotNull Path workDirectory, @NotNull Path vanillaPack, @Nullable Path vanillaJar, boolean offline) {
+    }
+
+    private enum Status {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private static class Job {
+        private final String id;
+        private final String name;
+        private final Path directory;
+
+        private volatile Status status = Status.QUEUED;
+        private volatile int errors;
+        private volatile int skipped;
+        private volatile String message;
+        private volatile long finishedAt;
+
+        Job(String id, String name, Path workDirectory) {
+            this.id = id;
+            this.name = name;
+            this.directory = workDirectory.resolve(id);
+        }
+
+        // Named after the pack, as the name of the output is the name of the converted pack
+        Path input() {
+            return this.directory.resolve(this.name + ".zip");
+        }
+
+        Path output() {
+            return this.directory.resolve(this.name + ".mcpack");
+        }
+
+        boolean finished() {
+            return this.status == Status.DONE || this.status == Status.FAILED;
+        }
+
+        void delete() {
+            try {
+                PathUtils.deleteDirectory(this.directory);
+            } catch (IOException ignored) {
+            }
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("id", this.id);
+            json.addProperty("name", this.name);
+            json.addProperty("status", this.status.name().toLowerCase());
+            if (this.status == Status.DONE) {
+                json.addProperty("errors", this.errors);
+                json.addProperty("skipped", this.skipped);
+            }
+
+            if (this.message != null) {
+                json.addProperty("error", this.message);
+            }
+
+            return json;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
@@ -33,10 +33,18 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class Main {
 
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("server")) {
+            ConversionServer server = ConversionServer.fromArgs(Arrays.copyOfRange(args, 1, args.length));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "PackConverter shutdown"));
+            return;
+        }
+
         if (args.length != 1) {
             throw new AssertionError("Please choose a .zip file to convert");
         } else {
@@ -4,6 +4,7 @@ plugins {
 
 dependencies {
     implementation("com.github.johnrengelman:shadow:8.1.1")
+    implementation("org.graalvm.buildtools:native-gradle-plugin:0.10.2")
 }
 
 repositories {
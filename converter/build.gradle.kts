@@ -27,6 +27,23 @@ dependencies {
 
     compileOnly("com.google.auto.service:auto-service:1.0.1")
     annotationProcessor("com.google.auto.service:auto-service:1.0.1")
+
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Compares the translation format conversion against the previous replace and regex implementation.
+// Pass -PlangDirectory=<dir> to run it on real language files, such as the assets of a Minecraft installation
+tasks.register<JavaExec>("langBenchmark") {
+    group = "verification"
+    description = "Benchmarks the conversion of translation format specifiers."
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("org.geysermc.pack.converter.converter.lang.LangFormatBenchmark")
+    providers.gradleProperty("langDirectory").orNull?.let { args(it) }
 }
 
 java {
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lets a conversion be cancelled, or bounded in time.
+ * <p>
+ * Converters check the token between units of work, such as converters,
+ * texture transformers and textures, so a conversion stops shortly after
+ * the token is cancelled or its deadline has passed. What happens then is
+ * decided by the {@link ExpiryPolicy} of the conversion.
+ */
+public final class CancellationToken {
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final CancellationToken parent;
+    private final long deadline;
+    private final ExpiryPolicy policy;
+    private final Queue<String> skipped = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a token without a deadline, which only
+     * expires once it is cancelled.
+     */
+    public CancellationToken() {
+        this(null, NO_DEADLINE, ExpiryPolicy.ABORT);
+    }
+
+    private CancellationToken(@Nullable CancellationToken parent, long deadline, @NotNull ExpiryPolicy policy) {
+        this.parent = parent;
+        this.deadline = deadline;
+        this.policy = policy;
+    }
+
+    /**
+     * Creates a token that expires once the given time has passed,
+     * or once it is cancelled.
+     *
+     * @param timeout the time from now until the token expires
+     * @return the token
+     */
+    @NotNull
+    public static CancellationToken timeout(@NotNull Duration timeout) {
+        return new CancellationToken(null, deadline(timeout), ExpiryPolicy.ABORT);
+    }
+
+    /**
+     * Creates the token of a single conversion, which expires along
+     * with the token given to the converter and keeps track of what
+     * the conversion skipped.
+     *
+     * @param parent the token given to the converter, or null
+     * @param timeout the time the conversion may take, or null
+     * @param policy what to do once the token expires
+     * @return the token of the conversion
+     */
+    @NotNull
+    static CancellationToken conversion(@Nullable CancellationToken parent, @Nullable Duration timeout, @NotNull ExpiryPolicy policy) {
+        return new CancellationToken(parent, timeout == null ? NO_DEADLINE : deadline(timeout), policy);
+    }
+
+    private static long deadline(@NotNull Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout cannot be negative, got " + timeout);
+        }
+
+        long nanos;
+        try {
+            nanos = timeout.toNanos();
+        } catch (ArithmeticException e) {
+            return NO_DEADLINE;
+        }
+
+        // Deadlines are compared as a difference, so they have to stay within half the range of nanoTime
+        return System.nanoTime() + Math.min(nanos, Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Cancels the token, stopping every conversion using it.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Gets whether the token was cancelled, either directly
+     * or through the token it was created from.
+     *
+     * @return true if the token was cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled || (this.parent != null && this.parent.isCancelled());
+    }
+
+    /**
+     * Gets whether the token was cancelled or its deadline has passed.
+     *
+     * @return true if the token has expired
+     */
+    public boolean isExpired() {
+        if (this.isCancelled()) {
+            return true;
+        }
+
+        if (this.deadline != NO_DEADLINE && System.nanoTime() - this.deadline >= 0) {
+            return true;
+        }
+
+        return this.parent != null && this.parent.isExpired();
+    }
+
+    /**
+     * Gets what happens to a conversion once the token expires.
+     *
+     * @return the expiry policy
+     */
+    @NotNull
+    public ExpiryPolicy policy() {
+        return this.policy;
+    }
+
+    /**
+     * Checks the token before starting on the given item.
+     * <p>
+     * Once the token has expired, this either aborts the conversion or
+     * records the item as skipped, depending on the {@link #policy()}.
+     *
+     * @param item a description of the work about to start, such as a texture key
+     * @return true if the item should be converted, false if it was skipped
+     * @throws CancellationException if the token has expired and the conversion is aborted
+     */
+    public boolean proceed(@NotNull String item) {
+        if (!this.isExpired()) {
+            return true;
+        }
+
+        if (this.policy == ExpiryPolicy.ABORT) {
+            throw new CancellationException(this.isCancelled() ? "The conversion was cancelled" : "The conversion ran past its deadline");
+        }
+
+        this.skipped.add(item);
+        return false;
+    }
+
+    /**
+     * Records an item as skipped without checking the token, for work
+     * left out because other work it depends on was skipped.
+     *
+     * @param item a description of the skipped work, such as a texture key
+     */
+    public void skip(@NotNull String item) {
+        this.skipped.add(item);
+    }
+
+    /**
+     * Gets the items skipped since the token expired, in the
+     * order they were skipped.
+     *
+     * @return the skipped items
+     */
+    @NotNull
+    public List<String> skipped() {
+        return List.copyOf(this.skipped);
+    }
+
+    /**
+     * What a conversion does once its token has expired.
+     */
+    public enum ExpiryPolicy {
+        /**
+         * Stops the conversion, throwing a {@link CancellationException}
+         * and discarding everything converted so far.
+         */
+        ABORT,
+        /**
+         * Skips everything that has not been converted yet, leaving Bedrock
+         * to use its vanilla assets for it, and finishes the pack with what
+         * was converted before the token expired.
+         */
+        FINISH_WITH_FALLBACKS
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter;
+
+import org.apache.commons.io.file.PathUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A single conversion run of a {@link PackConverter}.
+ * <p>
+ * Holds everything specific to the run, so one converter can serve
+ * several conversions at once. The converted pack is kept in a temporary
+ * directory until it is packaged with {@link #pack()}.
+ */
+public final class ConversionJob {
+    private final PackConverter converter;
+    private final Path input;
+    private final Path output;
+    private final Path tmpDir;
+    private final int errors;
+    private final List<String> skipped;
+
+    private boolean packed;
+
+    ConversionJob(@NotNull PackConverter converter, @NotNull Path input, @NotNull Path output, @NotNull Path tmpDir, int errors, @NotNull List<String> skipped) {
+        this.converter = converter;
+        this.input = input;
+        this.output = output;
+        this.tmpDir = tmpDir;
+        this.errors = errors;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Gets the snapshot of the converter configuration this job ran with.
+     *
+     * @return the converter
+     */
+    @NotNull
+    public PackConverter converter() {
+        return this.converter;
+    }
+
+    @NotNull
+    public Path input() {
+        return this.input;
+    }
+
+    @NotNull
+    public Path output() {
+        return this.output;
+    }
+
+    /**
+     * Gets the directory the converted pack was exported to.
+     *
+     * @return the temporary directory
+     */
+    @NotNull
+    public Path tmpDir() {
+        return this.tmpDir;
+    }
+
+    /**
+     * Gets the amount of converters that failed during the conversion.
+     *
+     * @return the amount of errors
+     */
+    public int errors() {
+        return this.errors;
+    }
+
+    /**
+     * Gets what the conversion skipped because it was cancelled or ran
+     * out of time, such as converters and texture keys. Bedrock uses
+     * its vanilla assets for these instead.
+     * <p>
+     * This is only ever non-empty for conversions finished with
+     * {@link CancellationToken.ExpiryPolicy#FINISH_WITH_FALLBACKS}.
+     *
+     * @return the skipped items
+     */
+    @NotNull
+    public List<String> skipped() {
+        return this.skipped;
+    }
+
+    /**
+     * Convert the temporary folder into the output zip, then
+     * remove the temporary folder.
+     *
+     * @return this instance
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized ConversionJob pack() throws IOException {
+        if (this.packed) {
+            throw new IllegalStateException("This job has already been packaged");
+        }
+
+        this.packed = true;
+        this.converter.logListener().info("Packaging pack...");
+
+        this.converter.packageHandler().pack(this.converter, this.tmpDir, this.output, this.converter.logListener());
+        this.converter.logListener().info("Packaged pack! Cleaning up...");
+
+        this.cleanup();
+
+        return this;
+    }
+
+    /**
+     * Remove the temporary folder generated by the converter.
+     * <p>
+     * Silently fails.
+     */
+    private void cleanup() {
+        try {
+            PathUtils.delete(this.tmpDir);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -39,7 +39,23 @@ public record PackConversionContext<T extends ConversionData>(
         @NotNull PackConverter packConverter,
         @NotNull ResourcePack javaResourcePack,
         @NotNull BedrockResourcePack bedrockResourcePack,
-        @NotNull LogListener logListener) {
+        @NotNull LogListener logListener,
+        @NotNull PackIndex packIndex,
+        @NotNull CancellationToken cancellationToken) {
+
+    /**
+     * Creates a context, indexing the Java pack as it is now. Creating
+     * several contexts for the same pack should share one index instead.
+     */
+    public PackConversionContext(@NotNull T data, @NotNull PackConverter packConverter, @NotNull ResourcePack javaResourcePack,
+                                 @NotNull BedrockResourcePack bedrockResourcePack, @NotNull LogListener logListener) {
+        this(data, packConverter, javaResourcePack, bedrockResourcePack, logListener, PackIndex.index(javaResourcePack));
+    }
+
+    public PackConversionContext(@NotNull T data, @NotNull PackConverter packConverter, @NotNull ResourcePack javaResourcePack,
+                                 @NotNull BedrockResourcePack bedrockResourcePack, @NotNull LogListener logListener, @NotNull PackIndex packIndex) {
+        this(data, packConverter, javaResourcePack, bedrockResourcePack, logListener, packIndex, new CancellationToken());
+    }
 
     public Path inputDirectory() {
         return this.data.inputDirectory();
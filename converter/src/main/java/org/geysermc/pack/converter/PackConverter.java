@@ -28,8 +28,11 @@ package org.geysermc.pack.converter;
 
 import org.apache.commons.io.file.PathUtils;
 import org.geysermc.pack.bedrock.resource.BedrockResourcePack;
+import org.geysermc.pack.bedrock.resource.manifest.Modules;
 import org.geysermc.pack.converter.converter.ActionListener;
 import org.geysermc.pack.converter.converter.Converter;
+import org.geysermc.pack.converter.converter.texture.PngToTgaMappings;
+import org.geysermc.pack.converter.converter.texture.TextureLimits;
 import org.geysermc.pack.converter.data.ConversionData;
 import org.geysermc.pack.converter.util.*;
 import org.jetbrains.annotations.NotNull;
@@ -38,14 +41,29 @@ import team.unnamed.creative.ResourcePack;
 import team.unnamed.creative.serialize.minecraft.MinecraftResourcePackReader;
 
 import javax.imageio.ImageIO;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Handles the conversion of a resource pack.
@@ -58,19 +76,68 @@ public final class PackConverter {
 
     private String textureSubdirectory;
 
+    private PngEncoder pngEncoder = new PngEncoder();
+
+    private PngToTgaMappings tgaMappings = PngToTgaMappings.defaults();
+
+    private PngOptimizer pngOptimizer;
+
+    private TextureLimits textureLimits;
+
+    private boolean deterministicManifest;
+
+    private String packIdentity;
+
     private boolean compressed;
 
+    private CancellationToken cancellationToken;
+
+    private Duration timeout;
+
+    private CancellationToken.ExpiryPolicy expiryPolicy = CancellationToken.ExpiryPolicy.ABORT;
+
     private final Map<Class<?>, List<ActionListener<?>>> actionListeners = new IdentityHashMap<>();
 
     private BiConsumer<ResourcePack, BedrockResourcePack> postProcessor;
 
     private final List<Converter<?>> converters = new ArrayList<>();
 
-    private Path tmpDir;
+    // Shared with every snapshot of this converter
+    private final Map<Path, ResourcePack> vanillaPacks;
+
+    private ConversionJob job;
 
     private PackageHandler packageHandler = PackageHandler.ZIP;
     private LogListener logListener = new DefaultLogListener();
 
+    public PackConverter() {
+        this.vanillaPacks = new ConcurrentHashMap<>();
+    }
+
+    private PackConverter(@NotNull PackConverter converter) {
+        this.input = converter.input;
+        this.output = converter.output;
+        this.vanillaPackPath = converter.vanillaPackPath;
+        this.textureSubdirectory = converter.textureSubdirectory;
+        // The option objects have setters, so they are copied to keep later changes away from running jobs
+        this.pngEncoder = converter.pngEncoder.copy();
+        this.tgaMappings = converter.tgaMappings;
+        this.pngOptimizer = converter.pngOptimizer == null ? null : converter.pngOptimizer.copy();
+        this.textureLimits = converter.textureLimits == null ? null : converter.textureLimits.copy();
+        this.deterministicManifest = converter.deterministicManifest;
+        this.packIdentity = converter.packIdentity;
+        this.compressed = converter.compressed;
+        this.cancellationToken = converter.cancellationToken;
+        this.timeout = converter.timeout;
+        this.expiryPolicy = converter.expiryPolicy;
+        converter.actionListeners.forEach((type, listeners) -> this.actionListeners.put(type, new ArrayList<>(listeners)));
+        this.postProcessor = converter.postProcessor;
+        this.converters.addAll(converter.converters);
+        this.packageHandler = converter.packageHandler;
+        this.logListener = converter.logListener;
+        this.vanillaPacks = converter.vanillaPacks;
+    }
+
     /**
      * Gets the subdirectory used for textures in the converted
      * resource pack.
@@ -84,6 +151,53 @@ public final class PackConverter {
         return this.textureSubdirectory;
     }
 
+    public PngEncoder pngEncoder() {
+        return this.pngEncoder;
+    }
+
+    public PngToTgaMappings tgaMappings() {
+        return this.tgaMappings;
+    }
+
+    @Nullable
+    public PngOptimizer pngOptimizer() {
+        return this.pngOptimizer;
+    }
+
+    @Nullable
+    public TextureLimits textureLimits() {
+        return this.textureLimits;
+    }
+
+    public boolean deterministicManifest() {
+        return this.deterministicManifest;
+    }
+
+    @Nullable
+    public String packIdentity() {
+        return this.packIdentity;
+    }
+
+    @NotNull
+    public LogListener logListener() {
+        return this.logListener;
+    }
+
+    @NotNull
+    public PackageHandler packageHandler() {
+        return this.packageHandler;
+    }
+
+    /**
+     * Gets the input (Java Edition) pack location.
+     *
+     * @return the input pack location
+     */
+    @Nullable
+    public Path input() {
+        return this.input;
+    }
+
     /**
      * Sets the input (Java Edition) pack location.
      *
@@ -145,6 +259,153 @@ public final class PackConverter {
         return this;
     }
 
+    /**
+     * Sets the encoder used to write the converted PNG textures.
+     * <p>
+     * This can be used to trade output size for conversion speed,
+     * by changing the compression level or filter of the encoder.
+     *
+     * @param pngEncoder the png encoder
+     * @return this instance
+     */
+    public PackConverter pngEncoder(@NotNull PngEncoder pngEncoder) {
+        this.pngEncoder = pngEncoder;
+        return this;
+    }
+
+    /**
+     * Sets the mappings of textures that are written as TGA.
+     * <p>
+     * Custom mappings can be added on top of the defaults
+     * through {@link PngToTgaMappings#with(PngToTgaMappings)}.
+     *
+     * @param tgaMappings the tga mappings
+     * @return this instance
+     */
+    public PackConverter tgaMappings(@NotNull PngToTgaMappings tgaMappings) {
+        this.tgaMappings = tgaMappings;
+        return this;
+    }
+
+    /**
+     * Sets the optimizer run over the converted PNG textures
+     * once they have been written, or null to disable it.
+     * <p>
+     * This makes the converted pack smaller at the cost of
+     * a considerably longer conversion.
+     *
+     * @param pngOptimizer the png optimizer
+     * @return this instance
+     */
+    public PackConverter pngOptimizer(@Nullable PngOptimizer pngOptimizer) {
+        this.pngOptimizer = pngOptimizer;
+        return this;
+    }
+
+    /**
+     * Sets the limits converted textures are scaled down to,
+     * or null to keep every texture at its original resolution.
+     * <p>
+     * This is useful for high resolution packs, which can take up
+     * more memory than low-end Bedrock clients have available.
+     *
+     * @param textureLimits the texture limits
+     * @return this instance
+     */
+    public PackConverter textureLimits(@Nullable TextureLimits textureLimits) {
+        this.textureLimits = textureLimits;
+        return this;
+    }
+
+    /**
+     * Sets whether the pack manifest should be derived from the
+     * pack itself, instead of being generated randomly.
+     * <p>
+     * The UUIDs are then based on the {@link #packIdentity(String) pack identity},
+     * and the version on a hash of the converted pack besides its manifest,
+     * along with anything skipped by a partial conversion. Converting an
+     * unchanged pack with the same options again produces the same manifest,
+     * so Bedrock clients can reuse their cached copy, while a different
+     * output, such as one from other options or a partial conversion,
+     * always gets a new version.
+     * <p>
+     * A {@link PngOptimizer} that runs out of its time budget can produce
+     * different files between runs, and with them a different version.
+     *
+     * @param deterministicManifest whether the manifest is deterministic
+     * @return this instance
+     */
+    public PackConverter deterministicManifest(boolean deterministicManifest) {
+        this.deterministicManifest = deterministicManifest;
+        return this;
+    }
+
+    /**
+     * Sets the identity the UUIDs of a deterministic manifest are
+     * derived from, or null to derive them from the pack description
+     * and a hash of the input pack.
+     * <p>
+     * Without an identity, any change to the pack gives it new UUIDs.
+     * Set an identity that stays the same across updates of a pack,
+     * such as a project name, to keep its UUIDs and only change its
+     * version.
+     *
+     * @param packIdentity the pack identity
+     * @return this instance
+     */
+    public PackConverter packIdentity(@Nullable String packIdentity) {
+        this.packIdentity = packIdentity;
+        return this;
+    }
+
+    /**
+     * Sets the token used to cancel conversions, or null to
+     * only stop them once they run past the {@link #timeout(Duration)}.
+     * <p>
+     * The token is shared by every conversion started with this converter,
+     * so cancelling it stops all of them.
+     *
+     * @param cancellationToken the cancellation token
+     * @return this instance
+     */
+    public PackConverter cancellationToken(@Nullable CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return this;
+    }
+
+    /**
+     * Sets how long a single conversion may take, or null to
+     * let conversions run until they are done.
+     * <p>
+     * The time is counted from the start of each conversion, and
+     * includes loading the vanilla pack.
+     *
+     * @param timeout the timeout
+     * @return this instance
+     */
+    public PackConverter timeout(@Nullable Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Sets what a conversion does once it has been cancelled or has run
+     * past its timeout.
+     * <p>
+     * By default, the conversion is aborted. With
+     * {@link CancellationToken.ExpiryPolicy#FINISH_WITH_FALLBACKS}, everything
+     * not converted yet is skipped instead, and the pack is finished with
+     * what was converted so far. The skipped items are listed by
+     * {@link ConversionJob#skipped()}.
+     *
+     * @param expiryPolicy the expiry policy
+     * @return this instance
+     */
+    public PackConverter expiryPolicy(@NotNull CancellationToken.ExpiryPolicy expiryPolicy) {
+        this.expiryPolicy = expiryPolicy;
+        return this;
+    }
+
     /**
      * Adds a converter to the converter list.
      *
@@ -243,11 +504,47 @@ public final class PackConverter {
 
     /**
      * Convert all resources in the pack using the converters
+     * <p>
+     * The converted pack is kept until {@link #pack()} is called. Use
+     * {@link #convert(Path, boolean, Path)} to run several conversions
+     * with the same converter.
      *
      * @return this instance
      * @throws IOException if an I/O error occurs
+     * @throws CancellationException if the conversion was aborted
      */
     public PackConverter convert() throws IOException {
+        this.job = this.run();
+        return this;
+    }
+
+    /**
+     * Converts the given pack using a snapshot of the current configuration
+     * of this converter.
+     * <p>
+     * Changes made to this converter afterwards do not affect the returned
+     * job, so one configured converter can run many conversions at once,
+     * sharing the parsed vanilla pack between them. Concurrent conversions
+     * must use different outputs.
+     *
+     * @param input the input (Java Edition) pack location
+     * @param compressed whether the input pack is compressed
+     * @param output the output (Bedrock Edition) pack location
+     * @return the conversion job, to package the converted pack with
+     * @throws IOException if an I/O error occurs
+     * @throws CancellationException if the conversion was aborted
+     */
+    @NotNull
+    public ConversionJob convert(@NotNull Path input, boolean compressed, @NotNull Path output) throws IOException {
+        PackConverter snapshot = new PackConverter(this);
+        snapshot.input = input;
+        snapshot.compressed = compressed;
+        snapshot.output = output;
+
+        return snapshot.run();
+    }
+
+    private ConversionJob run() throws IOException {
         if (this.input == null) {
             throw new NullPointerException("Input cannot be null");
         }
@@ -264,38 +561,67 @@ public final class PackConverter {
             throw new IllegalStateException("No converters have been added");
         }
 
+        CancellationToken token = CancellationToken.conversion(this.cancellationToken, this.timeout, this.expiryPolicy);
+
         // Load any image plugins
         ImageIO.scanForPlugins();
 
-        // Need to download the client jar, then use the
-        // client jar to get the vanilla models and textures, so we can
-        // ensure all parent models exist to convert them to Bedrock.
-        VanillaPackProvider.create(vanillaPackPath, this.logListener);
+        ResourcePack vanillaResourcePack = this.vanillaPack();
+        Path tmpDir = this.output.toAbsolutePath().getParent().resolve(this.output.getFileName() + "_mcpack/");
+        AtomicInteger errors = new AtomicInteger();
 
-        ZipUtils.openFileSystem(this.input, this.compressed, input -> {
-            this.tmpDir = this.output.toAbsolutePath().getParent().resolve(this.output.getFileName() + "_mcpack/");
+        try {
+            this.convertPack(token, tmpDir, vanillaResourcePack, errors);
+        } catch (CancellationException e) {
+            this.logListener.warn("Pack conversion aborted: " + e.getMessage());
+
+            try {
+                PathUtils.delete(tmpDir);
+            } catch (IOException ignored) {
+            }
 
+            throw e;
+        }
+
+        return new ConversionJob(this, this.input, this.output, tmpDir, errors.get(), token.skipped());
+    }
+
+    private void convertPack(@NotNull CancellationToken token, @NotNull Path tmpDir, @NotNull ResourcePack vanillaResourcePack, @NotNull AtomicInteger errors) throws IOException {
+        ZipUtils.openFileSystem(this.input, this.compressed, input -> {
             ResourcePack javaResourcePack = this.compressed ? MinecraftResourcePackReader.minecraft().readFromZipFile(this.input) : MinecraftResourcePackReader.minecraft().read(NioDirectoryFileTreeReader.read(this.input));
-            ResourcePack vanillaResourcePack = MinecraftResourcePackReader.minecraft().readFromZipFile(vanillaPackPath);
-            BedrockResourcePack bedrockResourcePack = new BedrockResourcePack(this.tmpDir);
+            BedrockResourcePack bedrockResourcePack = new BedrockResourcePack(tmpDir);
+
+            PackIndex packIndex = PackIndex.index(javaResourcePack);
+            this.logListener.debug("Indexed " + packIndex.textures().size() + " textures (" + packIndex.textureBytes() + " bytes), " + packIndex.models() + " models, "
+                    + packIndex.soundEvents() + " sound events, " + packIndex.languages() + " languages and " + packIndex.fonts() + " fonts in namespaces " + packIndex.namespaces());
 
             final Converter.ConversionDataCreationContext conversionDataCreationContext = new Converter.ConversionDataCreationContext(
-                this, logListener, input, this.tmpDir, javaResourcePack, vanillaResourcePack
+                this, logListener, input, tmpDir, javaResourcePack, vanillaResourcePack, packIndex
             );
 
-            int errors = 0;
             for (Converter converter : this.converters) {
+                if (!converter.shouldConvert(packIndex)) {
+                    this.logListener.debug("Skipping " + converter.getClass().getSimpleName() + ", the pack has nothing for it");
+                    continue;
+                }
+
+                if (!converter.isRequired() && !token.proceed(converter.getClass().getSimpleName())) {
+                    continue;
+                }
+
                 ConversionData data = converter.createConversionData(conversionDataCreationContext);
-                PackConversionContext<?> context = new PackConversionContext<>(data, this, javaResourcePack, bedrockResourcePack, this.logListener);
+                PackConversionContext<?> context = new PackConversionContext<>(data, this, javaResourcePack, bedrockResourcePack, this.logListener, packIndex, token);
 
                 List<ActionListener<?>> actionListeners = this.actionListeners.getOrDefault(data.getClass(), List.of());
                 try {
                     actionListeners.forEach(actionListener -> actionListener.preConvert((PackConversionContext) context));
                     converter.convert(context);
                     actionListeners.forEach(actionListener -> actionListener.postConvert((PackConversionContext) context));
+                } catch (CancellationException e) {
+                    throw e;
                 } catch (Throwable t) {
                     this.logListener.error("Error converting pack!", t);
-                    errors++;
+                    errors.incrementAndGet();
                 }
             }
 
@@ -305,16 +631,68 @@ public final class PackConverter {
 
             bedrockResourcePack.export();
 
-            if (errors > 0) {
-                this.logListener.warn("Pack conversion completed with " + errors + " errors!");
+            List<String> skipped = token.skipped();
+            if (this.deterministicManifest && bedrockResourcePack.manifest() != null) {
+                this.applyContentVersion(bedrockResourcePack, tmpDir, skipped);
+            }
+
+            if (!skipped.isEmpty()) {
+                this.logListener.warn("Pack conversion " + (token.isCancelled() ? "was cancelled" : "ran out of time") + ", skipped " + skipped.size()
+                        + " items that Bedrock will use vanilla assets for instead");
+                this.logListener.debug("Skipped " + skipped);
+            }
+
+            if (errors.get() > 0) {
+                this.logListener.warn("Pack conversion completed with " + errors.get() + " errors!");
             } else {
                 this.logListener.info("Pack conversion completed successfully!");
             }
         });
+    }
 
+    /**
+     * Loads the vanilla pack ahead of the first conversion, so it does not
+     * have to be downloaded or parsed while converting. Every snapshot of
+     * this converter shares the loaded pack.
+     *
+     * @return this instance
+     * @throws IOException if an I/O error occurs
+     */
+    public PackConverter loadVanillaPack() throws IOException {
+        if (this.vanillaPackPath == null) {
+            throw new NullPointerException("Vanilla Pack Path cannot be null");
+        }
+
+        this.vanillaPack();
         return this;
     }
 
+    /**
+     * Gets the vanilla pack, downloading and parsing it only once
+     * for this converter and every snapshot of it.
+     *
+     * @return the vanilla pack
+     * @throws IOException if an I/O error occurs
+     */
+    private ResourcePack vanillaPack() throws IOException {
+        try {
+            return this.vanillaPacks.computeIfAbsent(this.vanillaPackPath.toAbsolutePath().normalize(), path -> {
+                // Need to download the client jar, then use the
+                // client jar to get the vanilla models and textures, so we can
+                // ensure all parent models exist to convert them to Bedrock.
+                VanillaPackProvider.create(path, this.logListener);
+
+                try {
+                    return MinecraftResourcePackReader.minecraft().readFromZipFile(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Convert the temporary folder into the output zip
      *
@@ -322,25 +700,75 @@ public final class PackConverter {
      * @throws IOException if an I/O error occurs
      */
     public PackConverter pack() throws IOException {
-        this.logListener.info("Packaging pack...");
-
-        this.packageHandler.pack(this, this.tmpDir, this.output, this.logListener);
-        this.logListener.info("Packaged pack! Cleaning up...");
+        if (this.job == null) {
+            throw new IllegalStateException("The pack has to be converted before it can be packaged");
+        }
 
-        this.cleanup();
+        ConversionJob job = this.job;
+        this.job = null;
+        job.pack();
 
         return this;
     }
 
     /**
-     * Remove the temporary folder generated by the converter.
-     * <p>
-     * Silently fails.
+     * Sets the version of the exported pack to one derived from a hash
+     * of everything in the pack besides the manifest itself, and of the
+     * items the conversion skipped, so a partial conversion never shares
+     * its version with a complete one.
+     *
+     * @param bedrockResourcePack the exported pack
+     * @param tmpDir the directory the pack was exported to
+     * @param skipped the items skipped by the conversion
+     * @throws IOException if an I/O error occurs
      */
-    private void cleanup() {
+    private void applyContentVersion(@NotNull BedrockResourcePack bedrockResourcePack, @NotNull Path tmpDir, @NotNull List<String> skipped) throws IOException {
+        MessageDigest digest;
         try {
-            PathUtils.delete(tmpDir);
-        } catch (IOException ignored) {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(tmpDir)) {
+            files = stream.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(file -> tmpDir.relativize(file).toString().replace(File.separatorChar, '/')))
+                    .toList();
         }
+
+        Path manifestPath = tmpDir.resolve("manifest.json");
+        OutputStream digestStream = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+        for (Path file : files) {
+            if (file.equals(manifestPath)) {
+                continue;
+            }
+
+            digest.update(tmpDir.relativize(file).toString().replace(File.separatorChar, '/').getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream stream = Files.newInputStream(file)) {
+                stream.transferTo(digestStream);
+            }
+        }
+
+        // Skipped in the order they were reached, which depends on scheduling
+        List<String> sortedSkipped = new ArrayList<>(skipped);
+        sortedSkipped.sort(null);
+        for (String item : sortedSkipped) {
+            digest.update((byte) 1);
+            digest.update(item.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Bedrock versions are integers, so split 32 bits of the hash into two 16 bit parts
+        byte[] hash = digest.digest();
+        float[] version = new float[] { 1, ((hash[0] & 0xFF) << 8) | (hash[1] & 0xFF), ((hash[2] & 0xFF) << 8) | (hash[3] & 0xFF) };
+
+        bedrockResourcePack.manifest().header().version(version);
+        for (Modules module : bedrockResourcePack.manifest().modules()) {
+            module.version(version);
+        }
+
+        bedrockResourcePack.exportManifest();
+        this.logListener.debug(String.format("Derived pack version %d.%d.%d from the converted pack", (int) version[0], (int) version[1], (int) version[2]));
     }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter;
+
+import net.kyori.adventure.key.Key;
+import org.geysermc.pack.converter.util.ImageMetadata;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.ResourcePack;
+import team.unnamed.creative.font.Font;
+import team.unnamed.creative.lang.Language;
+import team.unnamed.creative.model.Model;
+import team.unnamed.creative.sound.SoundRegistry;
+import team.unnamed.creative.texture.Texture;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An index of the contents of a Java resource pack, built once after
+ * the pack is read and shared by every converter.
+ * <p>
+ * Converters can use it to skip their work when the pack has nothing
+ * for them (see {@link org.geysermc.pack.converter.converter.Converter#shouldConvert(PackIndex)}),
+ * and to estimate the cost of their work up front from the sizes and
+ * dimensions of the textures, without decoding them.
+ */
+public final class PackIndex {
+    private final Map<Key, TextureEntry> textures;
+    private final Set<String> namespaces;
+    private final Set<String> files;
+    private final int models;
+    private final int soundEvents;
+    private final int languages;
+    private final int fonts;
+    private final long textureBytes;
+    private final long decodedTextureBytes;
+
+    private PackIndex(@NotNull Map<Key, TextureEntry> textures, @NotNull Set<String> namespaces, @NotNull Set<String> files,
+                      int models, int soundEvents, int languages, int fonts) {
+        this.textures = Collections.unmodifiableMap(textures);
+        this.namespaces = Collections.unmodifiableSet(namespaces);
+        this.files = Collections.unmodifiableSet(files);
+        this.models = models;
+        this.soundEvents = soundEvents;
+        this.languages = languages;
+        this.fonts = fonts;
+
+        long textureBytes = 0;
+        long decodedTextureBytes = 0;
+        for (TextureEntry entry : textures.values()) {
+            textureBytes += entry.size();
+            decodedTextureBytes += entry.decodedSize();
+        }
+
+        this.textureBytes = textureBytes;
+        this.decodedTextureBytes = decodedTextureBytes;
+    }
+
+    /**
+     * Gets the textures of the pack by their key, in the order of the pack.
+     *
+     * @return the textures
+     */
+    @NotNull
+    public Map<Key, TextureEntry> textures() {
+        return this.textures;
+    }
+
+    /**
+     * Gets the indexed texture with the given key.
+     *
+     * @param key the key of the texture
+     * @return the texture, or null if the pack doesn't have it
+     */
+    @Nullable
+    public TextureEntry texture(@NotNull Key key) {
+        return this.textures.get(key);
+    }
+
+    /**
+     * Gets every namespace the pack has content in.
+     *
+     * @return the namespaces, sorted
+     */
+    @NotNull
+    public Set<String> namespaces() {
+        return this.namespaces;
+    }
+
+    /**
+     * Checks whether the pack has a file that is not a known resource
+     * type, such as {@code assets/minecraft/texts/splashes.txt}.
+     *
+     * @param path the path of the file, relative to the root of the pack
+     * @return true if the pack has the file
+     */
+    public boolean hasFile(@NotNull String path) {
+        return this.files.contains(path);
+    }
+
+    public int models() {
+        return this.models;
+    }
+
+    public int soundEvents() {
+        return this.soundEvents;
+    }
+
+    public int languages() {
+        return this.languages;
+    }
+
+    public int fonts() {
+        return this.fonts;
+    }
+
+    /**
+     * Gets the total size of the encoded textures.
+     *
+     * @return the size in bytes
+     */
+    public long textureBytes() {
+        return this.textureBytes;
+    }
+
+    /**
+     * Gets the total size of the textures once decoded to 32-bit pixels,
+     * which is a good estimate of the cost of converting them.
+     * Textures whose dimensions could not be read are not counted.
+     *
+     * @return the size in bytes
+     */
+    public long decodedTextureBytes() {
+        return this.decodedTextureBytes;
+    }
+
+    /**
+     * Indexes the given resource pack.
+     * <p>
+     * Textures are probed in parallel, but never decoded.
+     *
+     * @param pack the pack to index
+     * @return the index
+     */
+    @NotNull
+    public static PackIndex index(@NotNull ResourcePack pack) {
+        Set<String> namespaces = new TreeSet<>();
+
+        Collection<Texture> packTextures = pack.textures();
+        List<TextureEntry> entries;
+        try {
+            entries = packTextures.parallelStream()
+                    .map(TextureEntry::of)
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Could not read texture data", e.getCause());
+        }
+
+        Map<Key, TextureEntry> textures = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+        for (TextureEntry entry : entries) {
+            textures.put(entry.key(), entry);
+            namespaces.add(entry.key().namespace());
+        }
+
+        Collection<Model> models = pack.models();
+        for (Model model : models) {
+            namespaces.add(model.key().namespace());
+        }
+
+        int soundEvents = 0;
+        for (SoundRegistry registry : pack.soundRegistries()) {
+            namespaces.add(registry.namespace());
+            soundEvents += registry.sounds().size();
+        }
+
+        Collection<Language> languages = pack.languages();
+        for (Language language : languages) {
+            namespaces.add(language.key().namespace());
+        }
+
+        Collection<Font> fonts = pack.fonts();
+        for (Font font : fonts) {
+            namespaces.add(font.key().namespace());
+        }
+
+        return new PackIndex(textures, namespaces, Set.copyOf(pack.unknownFiles().keySet()),
+                models.size(), soundEvents, languages.size(), fonts.size());
+    }
+
+    /**
+     * A texture of the pack.
+     *
+     * @param key the key of the texture
+     * @param texture the texture
+     * @param size the size of the encoded texture in bytes
+     * @param metadata the dimensions and format of the texture, or null if it could not be probed
+     */
+    public record TextureEntry(@NotNull Key key, @NotNull Texture texture, long size, @Nullable ImageMetadata metadata) {
+
+        /**
+         * Gets the size of the texture once decoded to 32-bit pixels.
+         *
+         * @return the size in bytes, or 0 if the dimensions are unknown
+         */
+        public long decodedSize() {
+            return this.metadata == null ? 0 : this.metadata.decodedSize();
+        }
+
+        private static TextureEntry of(@NotNull Texture texture) {
+            byte[] data;
+            try {
+                data = texture.data().toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return new TextureEntry(texture.key(), texture, data.length, ImageMetadata.read(data));
+        }
+    }
+}
@@ -28,6 +28,7 @@ package org.geysermc.pack.converter.converter;
 
 import org.geysermc.pack.converter.PackConversionContext;
 import org.geysermc.pack.converter.PackConverter;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.data.ConversionData;
 import org.geysermc.pack.converter.util.LogListener;
 import org.jetbrains.annotations.NotNull;
@@ -41,6 +42,27 @@ public interface Converter<T extends ConversionData> {
 
     T createConversionData(@NotNull ConversionDataCreationContext context);
 
+    /**
+     * Checks whether this converter has anything to convert in the pack,
+     * letting it be skipped entirely when it does not.
+     *
+     * @param index the index of the pack being converted
+     * @return true if the converter should run
+     */
+    default boolean shouldConvert(@NotNull PackIndex index) {
+        return true;
+    }
+
+    /**
+     * Checks whether this converter has to run even after the conversion
+     * has run out of time, because the pack is not usable without it.
+     *
+     * @return true if the converter is always run
+     */
+    default boolean isRequired() {
+        return false;
+    }
+
     default boolean isExperimental() {
         return false;
     }
@@ -51,7 +73,8 @@ public interface Converter<T extends ConversionData> {
         @NotNull Path inputDirectory,
         @NotNull Path outputDirectory,
         @NotNull ResourcePack javaResourcePack,
-        @NotNull ResourcePack vanillaResourcePack
+        @NotNull ResourcePack vanillaResourcePack,
+        @NotNull PackIndex packIndex
     ) {
     }
 }
@@ -35,15 +35,34 @@ import org.geysermc.pack.converter.converter.BaseConverter;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.data.BaseConversionData;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.ResourcePack;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @AutoService(Converter.class)
 public class PackManifestConverter extends BaseConverter {
     private static final int FORMAT_VERSION = 2;
 
+    @Override
+    public boolean isRequired() {
+        // Bedrock does not load a pack without a manifest, even a partially converted one
+        return true;
+    }
+
     @Override
     public void convert(@NotNull PackConversionContext<BaseConversionData> context) throws Exception {
         ResourcePack javaPack = context.javaResourcePack();
@@ -51,22 +70,74 @@ public class PackManifestConverter extends BaseConverter {
         Manifest manifest = new Manifest();
         manifest.formatVersion(FORMAT_VERSION);
 
+        String name = context.outputDirectory().getFileName().toString();
+
+        // The version of a deterministic manifest is derived from the converted pack once it is exported
+        String identity = null;
+        float[] version = new float[] { 1, 0, 0 };
+        if (context.packConverter().deterministicManifest()) {
+            String packIdentity = context.packConverter().packIdentity();
+            identity = packIdentity != null ? packIdentity : javaPack.description() + "/" + HexFormat.of().formatHex(hash(context.inputDirectory()));
+        }
+
         Header header = new Header();
         header.description(javaPack.description());
-        header.name(context.outputDirectory().getFileName().toString());
-        header.version(new float[] { 1, 0, 0 });
+        header.name(name);
+        header.version(version);
         header.minEngineVersion(new float[] { 1, 16, 0 });
-        header.uuid(UUID.randomUUID().toString());
+        header.uuid(uuid(identity, "header"));
 
         manifest.header(header);
 
         Modules module = new Modules();
         module.description(javaPack.description());
         module.type("resources");
-        module.uuid(UUID.randomUUID().toString());
-        module.version(new float[] { 1, 0, 0 });
+        module.uuid(uuid(identity, "resources"));
+        module.version(version);
 
         manifest.modules(List.of(module));
         context.bedrockResourcePack().manifest(manifest);
     }
+
+    /**
+     * Hashes every file of the input pack, in sorted path order. This is
+     * the same for a pack whether it is compressed or not.
+     */
+    private static byte[] hash(@NotNull Path root) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(file -> relativePath(root, file)))
+                    .toList();
+        }
+
+        for (Path file : files) {
+            digest.update(relativePath(root, file).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream stream = Files.newInputStream(file)) {
+                stream.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            }
+        }
+
+        return digest.digest();
+    }
+
+    private static String relativePath(@NotNull Path root, @NotNull Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static String uuid(@Nullable String identity, @NotNull String part) {
+        if (identity == null) {
+            return UUID.randomUUID().toString();
+        }
+
+        return UUID.nameUUIDFromBytes((identity + "/" + part).getBytes(StandardCharsets.UTF_8)).toString();
+    }
 }
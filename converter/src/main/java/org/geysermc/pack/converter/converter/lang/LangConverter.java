@@ -28,6 +28,7 @@ package org.geysermc.pack.converter.converter.lang;
 
 import com.google.auto.service.AutoService;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.BaseConverter;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.data.BaseConversionData;
@@ -35,41 +36,121 @@ import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.lang.Language;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 @AutoService(Converter.class)
 public class LangConverter extends BaseConverter {
     private static final String BEDROCK_TEXTS_LOCATION = "texts";
 
-    private final Pattern positionalStringReplacement = Pattern.compile("%([0-9]+)\\$s");
+    @Override
+    public boolean shouldConvert(@NotNull PackIndex index) {
+        return index.languages() > 0;
+    }
 
     @Override
     public void convert(@NotNull PackConversionContext<BaseConversionData> context) throws Exception {
         Collection<Language> languages = context.javaResourcePack().languages();
-        for (Language language : languages) {
-            Map<String, String> strings = language.translations();
 
-            for (Map.Entry<String, String> entry : strings.entrySet()) {
-                String value = entry.getValue();
+        // Every language is converted on its own, only adding them to the pack has to happen in order
+        List<Map.Entry<String, Map<String, String>>> converted = languages.parallelStream()
+                .map(this::convertLanguage)
+                .toList();
+
+        for (Map.Entry<String, Map<String, String>> language : converted) {
+            context.bedrockResourcePack().addLanguage(language.getKey(), language.getValue());
+        }
+    }
 
-                // Replace %d with %s
-                value = value.replace("%d", "%s");
+    private Map.Entry<String, Map<String, String>> convertLanguage(@NotNull Language language) {
+        Map<String, String> strings = language.translations();
 
-                // Replace `%x$s` with `%x`
-                value = positionalStringReplacement.matcher(value).replaceAll("%$1");
+        for (Map.Entry<String, String> entry : strings.entrySet()) {
+            String value = entry.getValue();
+            String converted = convertFormat(value);
 
-                entry.setValue(value);
+            // Most translations have no format specifiers at all and are returned as is
+            if (converted != value) {
+                entry.setValue(converted);
             }
+        }
 
-            String languageKey = language.key().value();
+        String languageKey = language.key().value();
+
+        // Convert the language key to the Bedrock equivalent
+        if (languageKey.equals("no_no")) {
+            languageKey = "nb_no";
+        }
+
+        return Map.entry(languageKey, strings);
+    }
+
+    /**
+     * Converts the Java format specifiers in a translation to the ones
+     * Bedrock understands, in a single pass:
+     * <ul>
+     *     <li>{@code %d} becomes {@code %s}</li>
+     *     <li>{@code %x$s} and {@code %x$d} become {@code %x}</li>
+     *     <li>{@code %%} is an escaped percent sign and is left alone</li>
+     * </ul>
+     *
+     * @param value the translation
+     * @return the converted translation, or the same instance if nothing changed
+     */
+    @NotNull
+    static String convertFormat(@NotNull String value) {
+        int percent = value.indexOf('%');
+        if (percent == -1) {
+            return value;
+        }
 
-            // Convert the language key to the Bedrock equivalent
-            if (languageKey.equals("no_no")) {
-                languageKey = "nb_no";
+        int length = value.length();
+        StringBuilder builder = null;
+        int copied = 0;
+        while (percent != -1 && percent + 1 < length) {
+            char next = value.charAt(percent + 1);
+            if (next == '%') {
+                percent = value.indexOf('%', percent + 2);
+                continue;
             }
 
-            context.bedrockResourcePack().addLanguage(languageKey, strings);
+            int end;
+            int digitsEnd = percent + 1;
+            if (next == 'd') {
+                end = percent + 2;
+            } else {
+                while (digitsEnd < length && value.charAt(digitsEnd) >= '0' && value.charAt(digitsEnd) <= '9') {
+                    digitsEnd++;
+                }
+
+                if (digitsEnd == percent + 1 || digitsEnd + 1 >= length || value.charAt(digitsEnd) != '$'
+                        || (value.charAt(digitsEnd + 1) != 's' && value.charAt(digitsEnd + 1) != 'd')) {
+                    percent = value.indexOf('%', percent + 1);
+                    continue;
+                }
+
+                end = digitsEnd + 2;
+            }
+
+            if (builder == null) {
+                builder = new StringBuilder(length);
+            }
+
+            builder.append(value, copied, percent);
+            if (next == 'd') {
+                builder.append("%s");
+            } else {
+                builder.append(value, percent, digitsEnd);
+            }
+
+            copied = end;
+            percent = value.indexOf('%', end);
         }
+
+        if (builder == null) {
+            return value;
+        }
+
+        return builder.append(value, copied, length).toString();
     }
 }
@@ -30,6 +30,7 @@ import com.google.auto.service.AutoService;
 import com.google.gson.*;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.BaseConverter;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.data.BaseConversionData;
@@ -44,10 +45,16 @@ public class SplashTextConverter extends BaseConverter {
     private static final Gson GSON = new GsonBuilder()
             .setPrettyPrinting()
             .create();
+    private static final String SPLASHES_LOCATION = "assets/minecraft/texts/splashes.txt";
+
+    @Override
+    public boolean shouldConvert(@NotNull PackIndex index) {
+        return index.hasFile(SPLASHES_LOCATION);
+    }
 
     @Override
     public void convert(@NotNull PackConversionContext<BaseConversionData> context) throws Exception {
-        Writable javaSplashText = context.javaResourcePack().unknownFile("assets/minecraft/texts/splashes.txt");
+        Writable javaSplashText = context.javaResourcePack().unknownFile(SPLASHES_LOCATION);
         if (javaSplashText == null) return;
 
         String[] splashes = javaSplashText.toUTF8String().split("\n");
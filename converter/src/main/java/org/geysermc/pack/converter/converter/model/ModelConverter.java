@@ -42,6 +42,7 @@ import org.geysermc.pack.bedrock.resource.models.entity.modelentity.geometry.bon
 import org.geysermc.pack.bedrock.resource.models.entity.modelentity.geometry.bones.cubes.uv.Up;
 import org.geysermc.pack.bedrock.resource.models.entity.modelentity.geometry.bones.cubes.uv.West;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.data.ModelConversionData;
 import org.jetbrains.annotations.NotNull;
@@ -65,6 +66,11 @@ public class ModelConverter implements Converter<ModelConversionData> {
 
     private static final float[] ELEMENT_OFFSET = new float[] { 8, 0, 8 };
 
+    @Override
+    public boolean shouldConvert(@NotNull PackIndex index) {
+        return index.models() > 0;
+    }
+
     @Override
     public void convert(@NotNull PackConversionContext<ModelConversionData> context) throws Exception {
         ResourcePack javaPack = context.javaResourcePack();
@@ -27,11 +27,11 @@
 package org.geysermc.pack.converter.converter.sound;
 
 import com.google.auto.service.AutoService;
-import org.apache.commons.io.file.PathUtils;
 import org.geysermc.pack.bedrock.resource.sounds.sounddefinitions.SoundDefinitions;
 import org.geysermc.pack.bedrock.resource.sounds.sounddefinitions.Sounds;
 import org.geysermc.pack.converter.Constants;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.BaseConverter;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.data.BaseConversionData;
@@ -41,19 +41,48 @@ import team.unnamed.creative.sound.SoundEntry;
 import team.unnamed.creative.sound.SoundEvent;
 import team.unnamed.creative.sound.SoundRegistry;
 
+import java.io.IOException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
 
 @AutoService(Converter.class)
 public class SoundConverter extends BaseConverter {
     private static final String JAVA_SOUNDS_LOCATION = Constants.JAVA_PACK_LOCATION + "/sounds";
     private static final String BEDROCK_SOUNDS_LOCATION = "sounds";
 
+    @Override
+    public boolean shouldConvert(@NotNull PackIndex index) {
+        return index.soundEvents() > 0;
+    }
+
     @Override
     public void convert(@NotNull PackConversionContext<BaseConversionData> context) throws Exception {
         Collection<SoundRegistry> registry = context.javaResourcePack().soundRegistries();
+
+        // Only sound files referenced by a sound event are included, keyed by their bedrock name
+        Map<String, Path> files = new TreeMap<>();
+        for (SoundRegistry soundRegistry : registry) {
+            for (SoundEvent value : soundRegistry.sounds()) {
+                for (SoundEntry sound : value.sounds()) {
+                    if (sound.type() != SoundEntry.Type.FILE) {
+                        continue;
+                    }
+
+                    Path input = context.inputDirectory()
+                            .resolve(String.format(JAVA_SOUNDS_LOCATION, sound.key().namespace()))
+                            .resolve(sound.key().value() + ".ogg");
+
+                    if (Files.isRegularFile(input)) {
+                        files.putIfAbsent(sound.key().value(), input);
+                    }
+                }
+            }
+        }
+
         for (SoundRegistry soundRegistry : registry) {
             @Unmodifiable @NotNull Collection<SoundEvent> sounds = soundRegistry.sounds();
 
@@ -77,16 +106,35 @@ public class SoundConverter extends BaseConverter {
 
                 context.bedrockResourcePack().addSoundDefinition(key, definition);
             }
+        }
 
-            // Relocate sound files
-            Path input = context.inputDirectory().resolve(String.format(JAVA_SOUNDS_LOCATION, soundRegistry.namespace()));
-            Path output = context.outputDirectory().resolve(BEDROCK_SOUNDS_LOCATION);
+        // Relocate sound files
+        Path output = context.outputDirectory().resolve(BEDROCK_SOUNDS_LOCATION);
+        for (Map.Entry<String, Path> entry : files.entrySet()) {
+            Path target = output.resolve(entry.getKey() + ".ogg");
+            Files.createDirectories(target.getParent());
+            relocate(entry.getValue(), target);
+        }
+    }
 
-            if (Files.notExists(output)) {
-                Files.createDirectories(output);
-            }
+    /**
+     * Links the sound file into the output when both are on the default
+     * file system, as sound files are never modified during conversion.
+     * Files from compressed packs, or where linking is not supported,
+     * are streamed across instead.
+     */
+    private static void relocate(@NotNull Path source, @NotNull Path target) throws IOException {
+        Files.deleteIfExists(target);
 
-            PathUtils.copyDirectory(input, output, StandardCopyOption.REPLACE_EXISTING);
+        if (source.getFileSystem() == FileSystems.getDefault() && target.getFileSystem() == FileSystems.getDefault()) {
+            try {
+                Files.createLink(target, source);
+                return;
+            } catch (IOException | UnsupportedOperationException ignored) {
+                // Different file stores, or links are not supported
+            }
         }
+
+        Files.copy(source, target);
     }
 }
@@ -27,14 +27,21 @@
 package org.geysermc.pack.converter.converter.texture;
 
 import com.google.auto.service.AutoService;
+import org.geysermc.pack.converter.CancellationToken;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.Converter;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformedTexture;
 import org.geysermc.pack.converter.data.TextureConversionData;
+import org.geysermc.pack.converter.util.CostScheduler;
+import org.geysermc.pack.converter.util.ImageMetadata;
 import org.geysermc.pack.converter.util.ImageUtil;
+import org.geysermc.pack.converter.util.PngOptimizer;
+import org.geysermc.pack.converter.util.TgaWriter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.texture.Texture;
 
 import javax.imageio.ImageIO;
@@ -42,12 +49,15 @@ import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.OutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
@@ -67,11 +77,20 @@ public class TextureConverter implements Converter<TextureConversionData> {
             "gui", "ui"
     );
 
+    @Override
+    public boolean shouldConvert(@NotNull PackIndex index) {
+        // Fonts can make use of vanilla textures, even if the pack has none of its own
+        return !index.textures().isEmpty() || index.fonts() > 0;
+    }
+
     @Override
     public void convert(@NotNull PackConversionContext<TextureConversionData> context) throws Exception {
         TextureMappings mappings = TextureMappings.textureMappings();
 
-        List<Texture> textures = new ArrayList<>(context.javaResourcePack().textures());
+        List<Texture> textures = new ArrayList<>(context.packIndex().textures().size());
+        for (PackIndex.TextureEntry entry : context.packIndex().textures().values()) {
+            textures.add(entry.texture());
+        }
 
         context.info("Transforming textures...");
         TransformContext transformContext = new TransformContext(
@@ -79,121 +98,257 @@ public class TextureConverter implements Converter<TextureConversionData> {
                 mappings,
                 textures,
                 context.bedrockResourcePack(),
-                context.javaResourcePack()
+                context.javaResourcePack(),
+                context.packIndex()
         );
+        CancellationToken token = context.cancellationToken();
+        boolean transformersSkipped = false;
         for (TextureTransformer transformer : this.transformers) {
-            transformer.transform(transformContext);
+            if (token.proceed(transformer.getClass().getSimpleName())) {
+                transformer.transform(transformContext);
+            } else {
+                transformersSkipped = true;
+            }
         }
+
+        if (transformersSkipped) {
+            // Textures still as they were in the pack may be the Java layout input of a skipped transformer,
+            // so they are left out and Bedrock falls back to its own, while what the transformers produced is kept
+            textures.removeIf(texture -> {
+                if (!isPackTexture(context, texture)) {
+                    return false;
+                }
+
+                token.skip(texture.key().asString());
+                return true;
+            });
+        }
+
         context.info("Transformed textures!");
 
         context.info("Writing textures...");
 
-        for (Texture texture : textures) {
-            String input = texture.key().value();
-            Path texturePath = context.outputDirectory().resolve(BEDROCK_TEXTURES_LOCATION);
-            Path potentialOutput = texturePath.resolve(input);
-            String relativePath = texturePath.relativize(potentialOutput).toString().replace(File.separatorChar, '/');
+        Path texturePath = context.outputDirectory().resolve(BEDROCK_TEXTURES_LOCATION);
+        TextureOutputPlan plan = new TextureOutputPlan(mappings, context.data().tgaMappings(), context.data().textureSubdirectory());
 
-            if (relativePath.endsWith(".png")) relativePath = relativePath.substring(0, relativePath.length() - 4);
+        TextureLimits limits = context.data().textureLimits();
+        TextureLimits.Plan scaling = limits == null ? null : this.planScaling(context, limits, textures);
 
-            String rootPath = relativePath.substring(0, relativePath.indexOf('/'));
-            String bedrockRoot = DIRECTORY_LOCATIONS.getOrDefault(rootPath, rootPath);
+        List<List<TextureOutputPlan.TextureOutput>> outputs = this.resolveOutputs(context, textures, plan);
 
-            List<Path> outputs = new ArrayList<>();
-            List<String> outputPaths = new ArrayList<>();
+        // Textures are written in parallel, largest first, so a few large textures don't end up running on their own at the end
+        List<Integer> order = new ArrayList<>(textures.size());
+        long[] costs = new long[textures.size()];
+        for (int i = 0; i < textures.size(); i++) {
+            order.add(i);
+            costs[i] = this.estimateCost(context, textures.get(i), outputs.get(i));
+        }
 
-            Object mappingObject = mappings.textures(relativePath);
+        List<List<TransformedTexture>> written = new ArrayList<>(Collections.nCopies(textures.size(), null));
+        CostScheduler.Result schedule = new CostScheduler().run(order, index -> costs[index], index -> {
+            Texture texture = textures.get(index);
 
-            if (mappingObject == null) {
-                mappingObject = mappings.textures(rootPath);
-            }
+            // Transformer output is already made, so it is always written. Pack textures are skipped once
+            // the token expires, leaving them out of the pack so Bedrock falls back to its own
+            written.set(index, !isPackTexture(context, texture) || token.proceed(texture.key().asString())
+                    ? this.writeTexture(context, texture, outputs.get(index), texturePath, limits, scaling)
+                    : List.of());
+        });
 
-            String fallbackPath = bedrockRoot + "/" + relativePath.substring(relativePath.indexOf('/') + 1) + ".png";
-            if (mappingObject instanceof Map<?,?> keyMappings) { // Handles common subdirectories
-                String sanitizedName = input.substring(input.indexOf(File.separator) + 1);
-                if (sanitizedName.endsWith(".png")) sanitizedName = sanitizedName.substring(0, sanitizedName.length() - 4);
-                String javaPath = sanitizedName.substring(rootPath.length() + 1);
-
-                Object bedrockOutput = keyMappings.get(javaPath);
-                if (bedrockOutput instanceof String bedrockPath) {
-                    outputPaths.add(bedrockRoot + "/" + bedrockPath + ".png");
-                } else if (bedrockOutput instanceof List<?> paths) {
-                    for (String bedrockPath : (List<String>) paths) {
-                        outputPaths.add(bedrockRoot + "/" + bedrockPath + ".png");
-                    }
-                } else { // Fallback
-                    outputPaths.add(fallbackPath);
-                }
-            } else if (mappingObject instanceof String str) { // Direct mappings
-                outputPaths.add(str + ".png");
-            } else if (mappingObject instanceof List<?> paths) { // Mappings where duplicate code paths exist
-                for (String path : (List<String>) paths) {
-                    outputPaths.add(path + ".png");
-                }
-            } else { // Fallback
-                outputPaths.add(fallbackPath);
+        // Added in the original order, so the result doesn't depend on the scheduling
+        for (List<TransformedTexture> transformed : written) {
+            for (TransformedTexture transformedTexture : transformed) {
+                context.data().addTransformedTexture(transformedTexture);
             }
+        }
 
-            String bedrockDirectory = "%s/%s";
-            if (context.data().textureSubdirectory() != null) {
-                bedrockDirectory = "%s/" + context.data().textureSubdirectory() + "/%s";
-            }
+        context.debug(String.format("Wrote %d textures on %d workers in %d ms (longest texture %d ms), %.0f%% parallel efficiency",
+                schedule.tasks(), schedule.workers(), schedule.wallNanos() / 1_000_000, schedule.longestNanos() / 1_000_000, schedule.efficiency() * 100));
 
-            for (String outputPath : outputPaths) {
-                context.debug(String.format("Converted %s to %s, writing texture.", input, outputPath));
+        context.info("Written textures!");
 
-                String root = outputPath.substring(0, outputPath.indexOf('/'));
-                String value = outputPath.substring(outputPath.indexOf('/') + 1);
+        PngOptimizer optimizer = context.data().pngOptimizer();
+        if (optimizer != null && token.proceed("PNG optimization")) {
+            context.info("Optimizing textures...");
 
-                outputs.add(texturePath.resolve((
-                        bedrockDirectory.formatted(root, value)
-                ).replace('/', File.separatorChar)));
+            List<Path> files = context.data().transformedTextures().stream()
+                    .map(TransformedTexture::output)
+                    .toList();
+
+            PngOptimizer.Result result = optimizer.optimize(files);
+            context.info(String.format("Optimized %d textures, saving %d of %d bytes", result.optimized(), result.bytesSaved(), result.bytesBefore()));
+            if (result.skipped() > 0) {
+                context.warn(String.format("Skipped optimizing %d textures, as they ran over the time budget or could not be read", result.skipped()));
             }
+        }
 
-            byte[] bytes = texture.data().toByteArray();
+        context.info("Texture conversion complete!");
+    }
 
-            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+    // Whether the texture is still as it was in the pack, rather than made by a transformer
+    private static boolean isPackTexture(@NotNull PackConversionContext<TextureConversionData> context, @NotNull Texture texture) {
+        PackIndex.TextureEntry entry = context.packIndex().texture(texture.key());
+        return entry != null && entry.texture() == texture;
+    }
 
-            for (Path output : outputs) {
-                TransformedTexture transformedTexture = new TransformedTexture(texture, output);
+    // Textures written to the same file would race each other, so like writing them one after another, the last texture in pack order wins
+    private List<List<TextureOutputPlan.TextureOutput>> resolveOutputs(@NotNull PackConversionContext<TextureConversionData> context, @NotNull List<Texture> textures,
+                                                                       @NotNull TextureOutputPlan plan) {
+        List<List<TextureOutputPlan.TextureOutput>> outputs = new ArrayList<>(textures.size());
+        Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < textures.size(); i++) {
+            String input = textures.get(i).key().value();
+            List<TextureOutputPlan.TextureOutput> textureOutputs = plan.outputs(input.endsWith(".png") ? input.substring(0, input.length() - 4) : input);
+            outputs.add(textureOutputs);
+
+            for (TextureOutputPlan.TextureOutput output : textureOutputs) {
+                if (output.png() != null) owners.put(output.png(), i);
+                if (output.tga() != null) owners.put(output.tga(), i);
+            }
+        }
 
-                if (output.getParent() != null && Files.notExists(output.getParent())) {
-                    Files.createDirectories(output.getParent());
+        for (int i = 0; i < textures.size(); i++) {
+            List<TextureOutputPlan.TextureOutput> textureOutputs = outputs.get(i);
+            List<TextureOutputPlan.TextureOutput> kept = new ArrayList<>(textureOutputs.size());
+            for (TextureOutputPlan.TextureOutput output : textureOutputs) {
+                String png = output.png() != null && owners.get(output.png()) == i ? output.png() : null;
+                String tga = output.tga() != null && owners.get(output.tga()) == i ? output.tga() : null;
+                if (png == null && tga == null) {
+                    String overwritten = output.png() != null ? output.png() : output.tga();
+                    context.debug(String.format("Not writing %s to %s, %s is written there instead", textures.get(i).key().value(), overwritten,
+                            textures.get(owners.get(overwritten)).key().value()));
+                    continue;
                 }
 
-                BufferedImage bedrockImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-
-                Graphics2D g = bedrockImage.createGraphics();
-                g.setComposite(AlphaComposite.Src);
-                g.drawImage(image, 0, 0, null);
-                g.dispose();
-
-                String pngKey = context.outputDirectory().relativize(output).toString().replace(File.separatorChar, '/');
-                PngToTgaMappings.TgaMapping mapping = PngToTgaMappings.mapping(pngKey);
-                if (mapping != null) {
-                    Path tgaPath = context.outputDirectory().resolve(mapping.value());
-                    if (Files.notExists(tgaPath.getParent())) {
-                        Files.createDirectories(tgaPath.getParent());
-                    }
-
-                    ImageUtil.writeTGA(tgaPath, bedrockImage);
-                    if (!mapping.keep()) {
-                        Files.deleteIfExists(output);
-                        continue;
-                    }
+                kept.add(png == output.png() && tga == output.tga() ? output : new TextureOutputPlan.TextureOutput(png, tga));
+            }
+
+            outputs.set(i, kept);
+        }
+
+        return outputs;
+    }
+
+    private List<TransformedTexture> writeTexture(@NotNull PackConversionContext<TextureConversionData> context, @NotNull Texture texture,
+                                                  @NotNull List<TextureOutputPlan.TextureOutput> outputs, @NotNull Path texturePath,
+                                                  @Nullable TextureLimits limits, TextureLimits.@Nullable Plan scaling) throws IOException {
+        if (outputs.isEmpty()) {
+            return List.of();
+        }
+
+        List<TransformedTexture> written = new ArrayList<>(1);
+
+        String input = texture.key().value();
+
+        byte[] bytes = texture.data().toByteArray();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+
+        BufferedImage bedrockImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = bedrockImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+
+        int divisor = scaling == null ? 1 : scaling.divisor(input);
+        if (divisor > 1) {
+            int width = Math.max(1, bedrockImage.getWidth() / divisor);
+            int height = Math.max(1, bedrockImage.getHeight() / divisor);
+
+            context.debug(String.format("Scaling %s down from %dx%d to %dx%d", input, bedrockImage.getWidth(), bedrockImage.getHeight(), width, height));
+            bedrockImage = ImageUtil.resize(bedrockImage, width, height, limits.filter());
+        }
+
+        // Every output of a texture shares the same raster, so each format is encoded once
+        byte[] pngBytes = null;
+        byte[] tgaBytes = null;
+
+        for (TextureOutputPlan.TextureOutput output : outputs) {
+            context.debug(String.format("Converted %s to %s, writing texture.", input, output.png() != null ? output.png() : output.tga()));
+
+            if (output.tga() != null) {
+                if (tgaBytes == null) {
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream(18 + bedrockImage.getWidth() * bedrockImage.getHeight() * 4);
+                    TgaWriter.write(bedrockImage, false, stream);
+                    tgaBytes = stream.toByteArray();
                 }
 
-                try (OutputStream stream = Files.newOutputStream(output)) {
-                    ImageIO.write(bedrockImage, "png", stream);
+                Path tgaPath = texturePath.resolve(output.tga().replace('/', File.separatorChar));
+                if (Files.notExists(tgaPath.getParent())) {
+                    Files.createDirectories(tgaPath.getParent());
                 }
 
-                context.data().addTransformedTexture(transformedTexture);
+                Files.write(tgaPath, tgaBytes);
             }
+
+            // Textures only needed as TGA are never encoded to PNG
+            if (output.png() == null) {
+                continue;
+            }
+
+            if (pngBytes == null) {
+                pngBytes = context.data().pngEncoder().encode(bedrockImage);
+            }
+
+            Path pngPath = texturePath.resolve(output.png().replace('/', File.separatorChar));
+            if (pngPath.getParent() != null && Files.notExists(pngPath.getParent())) {
+                Files.createDirectories(pngPath.getParent());
+            }
+
+            Files.write(pngPath, pngBytes);
+
+            written.add(new TransformedTexture(texture, pngPath));
         }
 
-        context.info("Written textures!");
+        return written;
+    }
 
-        context.info("Texture conversion complete!");
+    // Roughly the work needed for a texture: decoding it, plus encoding it once for every format it is written as
+    private long estimateCost(@NotNull PackConversionContext<TextureConversionData> context, @NotNull Texture texture,
+                              @NotNull List<TextureOutputPlan.TextureOutput> outputs) throws IOException {
+        if (outputs.isEmpty()) {
+            return 0;
+        }
+
+        boolean png = false;
+        boolean tga = false;
+        for (TextureOutputPlan.TextureOutput output : outputs) {
+            png |= output.png() != null;
+            tga |= output.tga() != null;
+        }
+
+        PackIndex.TextureEntry entry = context.packIndex().texture(texture.key());
+        byte[] bytes = entry != null && entry.texture() == texture ? null : texture.data().toByteArray();
+        ImageMetadata metadata = bytes == null ? entry.metadata() : ImageMetadata.read(bytes);
+        if (metadata == null) {
+            return bytes == null ? entry.size() : bytes.length;
+        }
+
+        return (long) metadata.width() * metadata.height() * (1 + (png ? 1 : 0) + (tga ? 1 : 0));
+    }
+
+    private TextureLimits.Plan planScaling(@NotNull PackConversionContext<TextureConversionData> context, @NotNull TextureLimits limits, @NotNull List<Texture> textures) {
+        Map<String, ImageMetadata> sizes = new HashMap<>();
+        for (Texture texture : textures) {
+            // Textures left untouched by the transformers were already probed when indexing the pack
+            PackIndex.TextureEntry entry = context.packIndex().texture(texture.key());
+            ImageMetadata metadata = entry != null && entry.texture() == texture ? entry.metadata() : ImageMetadata.read(texture.data().toByteArray());
+            if (metadata != null) {
+                sizes.put(texture.key().value(), metadata);
+            }
+        }
+
+        TextureLimits.Plan scaling = limits.plan(sizes);
+        if (!scaling.divisors().isEmpty()) {
+            context.info(String.format("Scaling down %d textures, from %d to %d bytes of decoded texture memory", scaling.divisors().size(), scaling.bytesBefore(), scaling.bytesAfter()));
+        }
+
+        if (limits.memoryBudget() >= 0 && scaling.bytesAfter() > limits.memoryBudget()) {
+            context.warn(String.format("Textures take up %d bytes once decoded, which does not fit the memory budget of %d bytes", scaling.bytesAfter(), limits.memoryBudget()));
+        }
+
+        return scaling;
     }
 
     @Override
@@ -202,7 +357,11 @@ public class TextureConverter implements Converter<TextureConversionData> {
                 context.inputDirectory(),
                 context.outputDirectory(),
                 context.converter().textureSubdirectory(),
-                context.vanillaResourcePack()
+                context.vanillaResourcePack(),
+                context.converter().pngEncoder(),
+                context.converter().tgaMappings(),
+                context.converter().pngOptimizer(),
+                context.converter().textureLimits()
         );
     }
 }
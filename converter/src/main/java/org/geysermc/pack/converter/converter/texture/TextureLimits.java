@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.converter.texture;
+
+import org.geysermc.pack.converter.util.ImageMetadata;
+import org.geysermc.pack.converter.util.Resampler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Limits the resolution of converted textures, either by capping the
+ * resolution per category of texture or by fitting all textures into a
+ * budget of decoded texture memory.
+ * <p>
+ * Textures are only ever scaled down by powers of two, so animation
+ * frames and texture proportions stay intact. The resolution of a
+ * texture is its smallest side, so a tall animation strip is capped by
+ * the size of its frames.
+ */
+public final class TextureLimits {
+    private final Map<Category, Integer> maxResolutions = new EnumMap<>(Category.class);
+    private long memoryBudget = -1;
+    private int minResolution = 16;
+    private Resampler.Filter filter = Resampler.Filter.BOX;
+
+    /**
+     * Caps the resolution of all textures in the given category.
+     *
+     * @param category the category
+     * @param maxResolution the maximum resolution
+     * @return this instance
+     */
+    public TextureLimits maxResolution(@NotNull Category category, int maxResolution) {
+        if (maxResolution <= 0) {
+            throw new IllegalArgumentException("Max resolution must be positive, got " + maxResolution);
+        }
+
+        this.maxResolutions.put(category, maxResolution);
+        return this;
+    }
+
+    /**
+     * Sets the amount of memory all textures may take up once decoded
+     * by the client, or -1 for no budget. The largest textures are
+     * scaled down first until the pack fits.
+     * <p>
+     * UI textures are never scaled to fit the budget, as the UI
+     * definitions written alongside them are sized in pixels.
+     *
+     * @param memoryBudget the memory budget in bytes
+     * @return this instance
+     */
+    public TextureLimits memoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * Sets the resolution below which textures are not scaled
+     * down to fit the memory budget.
+     *
+     * @param minResolution the minimum resolution, at least 1
+     * @return this instance
+     */
+    public TextureLimits minResolution(int minResolution) {
+        if (minResolution < 1) {
+            throw new IllegalArgumentException("Min resolution must be positive, got " + minResolution);
+        }
+
+        this.minResolution = minResolution;
+        return this;
+    }
+
+    /**
+     * Sets the filter textures are scaled down with.
+     *
+     * @param filter the filter
+     * @return this instance
+     */
+    public TextureLimits filter(@NotNull Resampler.Filter filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    @NotNull
+    public Map<Category, Integer> maxResolutions() {
+        return Collections.unmodifiableMap(this.maxResolutions);
+    }
+
+    public long memoryBudget() {
+        return this.memoryBudget;
+    }
+
+    public int minResolution() {
+        return this.minResolution;
+    }
+
+    @NotNull
+    public Resampler.Filter filter() {
+        return this.filter;
+    }
+
+    /**
+     * Creates a copy of these limits, which later changes
+     * to these limits do not affect.
+     *
+     * @return the copy
+     */
+    @NotNull
+    public TextureLimits copy() {
+        TextureLimits copy = new TextureLimits();
+        copy.maxResolutions.putAll(this.maxResolutions);
+        copy.memoryBudget = this.memoryBudget;
+        copy.minResolution = this.minResolution;
+        copy.filter = this.filter;
+        return copy;
+    }
+
+    /**
+     * Works out how far every texture has to be scaled down.
+     *
+     * @param textures the metadata of every texture, by java texture path
+     * @return the scaling plan
+     */
+    @NotNull
+    public Plan plan(@NotNull Map<String, ImageMetadata> textures) {
+        Map<String, Integer> divisors = new HashMap<>();
+
+        long before = 0;
+        long after = 0;
+        for (Map.Entry<String, ImageMetadata> entry : textures.entrySet()) {
+            ImageMetadata metadata = entry.getValue();
+            before += metadata.decodedSize();
+
+            int divisor = 1;
+            Integer maxResolution = this.maxResolutions.get(Category.of(entry.getKey()));
+            if (maxResolution != null) {
+                int resolution = Math.min(metadata.width(), metadata.height());
+                while (resolution / divisor > maxResolution && resolution / (divisor * 2) > 0) {
+                    divisor *= 2;
+                }
+            }
+
+            if (divisor > 1) {
+                divisors.put(entry.getKey(), divisor);
+            }
+
+            after += decodedSize(metadata, divisor);
+        }
+
+        if (this.memoryBudget >= 0 && after > this.memoryBudget) {
+            PriorityQueue<String> largest = new PriorityQueue<>(Comparator.comparingLong((String path) -> decodedSize(textures.get(path), divisors.getOrDefault(path, 1))).reversed());
+            for (String path : textures.keySet()) {
+                if (Category.of(path) != Category.UI) {
+                    largest.add(path);
+                }
+            }
+
+            while (after > this.memoryBudget && !largest.isEmpty()) {
+                String path = largest.poll();
+                ImageMetadata metadata = textures.get(path);
+                int divisor = divisors.getOrDefault(path, 1);
+
+                int resolution = Math.min(metadata.width(), metadata.height());
+                // Halving again would leave the texture smaller than a pixel, or below the minimum resolution
+                if (divisor > resolution / 2 || resolution / (divisor * 2) < this.minResolution) {
+                    continue;
+                }
+
+                after -= decodedSize(metadata, divisor) - decodedSize(metadata, divisor * 2);
+                divisors.put(path, divisor * 2);
+                largest.add(path);
+            }
+        }
+
+        return new Plan(divisors, before, after);
+    }
+
+    private static long decodedSize(ImageMetadata metadata, int divisor) {
+        return (long) Math.max(1, metadata.width() / divisor) * Math.max(1, metadata.height() / divisor) * 4;
+    }
+
+    /**
+     * How far textures are scaled down.
+     *
+     * @param divisors the divisor of every scaled texture, by java texture path
+     * @param bytesBefore the decoded size of all textures before scaling
+     * @param bytesAfter the decoded size of all textures after scaling
+     */
+    public record Plan(@NotNull Map<String, Integer> divisors, long bytesBefore, long bytesAfter) {
+
+        /**
+         * Gets the divisor the given texture is scaled down by,
+         * or 1 if it is kept at its original size.
+         *
+         * @param path the java texture path
+         * @return the divisor
+         */
+        public int divisor(@NotNull String path) {
+            return this.divisors.getOrDefault(path, 1);
+        }
+    }
+
+    /**
+     * The category of a texture, based on the directory it is in.
+     */
+    public enum Category {
+        BLOCKS("blocks"),
+        ITEMS("items"),
+        ENTITY("entity"),
+        UI("ui"),
+        OTHER(null);
+
+        private final String directory;
+
+        Category(@Nullable String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Gets the category of the given java texture path.
+         *
+         * @param path the java texture path
+         * @return the category
+         */
+        @NotNull
+        public static Category of(@NotNull String path) {
+            int separator = path.indexOf('/');
+            if (separator == -1) {
+                return OTHER;
+            }
+
+            String root = path.substring(0, separator);
+            String directory = TextureConverter.DIRECTORY_LOCATIONS.getOrDefault(root, root);
+            for (Category category : values()) {
+                if (directory.equals(category.directory)) {
+                    return category;
+                }
+            }
+
+            return OTHER;
+        }
+    }
+}
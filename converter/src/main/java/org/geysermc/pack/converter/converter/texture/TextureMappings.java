@@ -26,34 +26,166 @@
 
 package org.geysermc.pack.converter.converter.texture;
 
-import com.google.gson.Gson;
-import lombok.ToString;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.LinkedHashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
-@ToString
-public class TextureMappings extends LinkedHashMap<String, Object> {
-    private static TextureMappings INSTANCE;
+/**
+ * The mappings of Java texture paths to Bedrock texture paths.
+ * <p>
+ * The mappings file is compiled once into a single lookup table from
+ * Java texture paths to the full Bedrock output paths, so resolving a
+ * texture is a single hash lookup. All paths are relative to the textures
+ * directory and without extension.
+ */
+public final class TextureMappings {
+    private static volatile TextureMappings INSTANCE;
+
+    private final Map<String, List<String>> outputs;
+
+    private TextureMappings(@NotNull Map<String, List<String>> outputs) {
+        this.outputs = Map.copyOf(outputs);
+    }
+
+    /**
+     * Gets the Bedrock output paths of the given Java texture.
+     * <p>
+     * Textures without an explicit mapping are placed at the same path,
+     * with their root directory renamed according to
+     * {@link TextureConverter#DIRECTORY_LOCATIONS}.
+     *
+     * @param javaPath the Java texture path
+     * @return the Bedrock output paths
+     */
+    @NotNull
+    public List<String> outputs(@NotNull String javaPath) {
+        List<String> outputs = this.outputs.get(javaPath);
+        if (outputs != null) {
+            return outputs;
+        }
+
+        return List.of(fallback(javaPath));
+    }
 
+    /**
+     * Gets the explicitly mapped Bedrock output paths of the given Java texture.
+     *
+     * @param javaPath the Java texture path
+     * @return the Bedrock output paths, or null if the texture has no explicit mapping
+     */
     @Nullable
-    public Object textures(@NotNull String key) {
-        return this.get(key);
+    public List<String> mapped(@NotNull String javaPath) {
+        return this.outputs.get(javaPath);
+    }
+
+    /**
+     * Runs the given action for every explicitly mapped Java texture.
+     *
+     * @param action the action, receiving the Java path and its Bedrock output paths
+     */
+    public void forEach(@NotNull BiConsumer<String, List<String>> action) {
+        this.outputs.forEach(action);
+    }
+
+    @NotNull
+    private static String fallback(@NotNull String javaPath) {
+        int separator = javaPath.indexOf('/');
+        if (separator == -1) {
+            return javaPath;
+        }
+
+        String root = javaPath.substring(0, separator);
+        String bedrockRoot = TextureConverter.DIRECTORY_LOCATIONS.get(root);
+        if (bedrockRoot == null) {
+            return javaPath;
+        }
+
+        return bedrockRoot + javaPath.substring(separator);
     }
 
+    @NotNull
     public static TextureMappings textureMappings() {
-        if (INSTANCE != null) {
-            return INSTANCE;
+        TextureMappings mappings = INSTANCE;
+        if (mappings != null) {
+            return mappings;
+        }
+
+        synchronized (TextureMappings.class) {
+            if (INSTANCE != null) {
+                return INSTANCE;
+            }
+
+            InputStream mappingsStream = TextureMappings.class.getResourceAsStream("/mappings/textures.json");
+            if (mappingsStream == null) {
+                throw new RuntimeException("Could not find textures.json mappings file!");
+            }
+
+            try (InputStreamReader reader = new InputStreamReader(mappingsStream, StandardCharsets.UTF_8)) {
+                return INSTANCE = compile(JsonParser.parseReader(reader).getAsJsonObject());
+            } catch (Exception e) {
+                throw new RuntimeException("Could not load textures.json mappings file!", e);
+            }
         }
-        InputStream mappingsStream = TextureMappings.class.getResourceAsStream("/mappings/textures.json");
-        if (mappingsStream == null) {
-            throw new RuntimeException("Could not find textures.json mappings file!");
+    }
+
+    /**
+     * Compiles the raw mappings into a lookup table.
+     * <p>
+     * Top level entries either map a full Java path to one or more Bedrock
+     * paths, or map a root directory (such as {@code block}) to an object of
+     * paths relative to that directory. Full path mappings take precedence.
+     *
+     * @param json the raw mappings
+     * @return the compiled mappings
+     */
+    @NotNull
+    static TextureMappings compile(@NotNull JsonObject json) {
+        Map<String, List<String>> outputs = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            if (!entry.getValue().isJsonObject()) {
+                continue;
+            }
+
+            String root = entry.getKey();
+            String bedrockRoot = TextureConverter.DIRECTORY_LOCATIONS.getOrDefault(root, root);
+            for (Map.Entry<String, JsonElement> subEntry : entry.getValue().getAsJsonObject().entrySet()) {
+                outputs.put(root + "/" + subEntry.getKey(), paths(bedrockRoot + "/", subEntry.getValue()));
+            }
+        }
+
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            if (!entry.getValue().isJsonObject()) {
+                outputs.put(entry.getKey(), paths("", entry.getValue()));
+            }
+        }
+
+        return new TextureMappings(outputs);
+    }
+
+    @NotNull
+    private static List<String> paths(@NotNull String prefix, @NotNull JsonElement element) {
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<String> paths = new ArrayList<>(array.size());
+            for (JsonElement path : array) {
+                paths.add(prefix + path.getAsString());
+            }
+
+            return List.copyOf(paths);
         }
 
-        return INSTANCE = new Gson().fromJson(new InputStreamReader(mappingsStream), TextureMappings.class);
+        return List.of(prefix + element.getAsString());
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.converter.texture;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The files each Java texture is written to for a single conversion,
+ * combining the texture mappings, the TGA mappings and the texture
+ * subdirectory.
+ * <p>
+ * Every explicitly mapped texture is resolved once when the plan is
+ * created, so writing a texture needs no further path handling.
+ */
+public final class TextureOutputPlan {
+    private final TextureMappings mappings;
+    private final PngToTgaMappings tgaMappings;
+    private final String textureSubdirectory;
+    private final Map<String, List<TextureOutput>> outputs = new HashMap<>();
+
+    public TextureOutputPlan(@NotNull TextureMappings mappings, @NotNull PngToTgaMappings tgaMappings, @Nullable String textureSubdirectory) {
+        this.mappings = mappings;
+        this.tgaMappings = tgaMappings;
+        this.textureSubdirectory = textureSubdirectory;
+
+        mappings.forEach((javaPath, bedrockPaths) -> this.outputs.put(javaPath, this.resolve(bedrockPaths)));
+    }
+
+    /**
+     * Gets the outputs of the given Java texture.
+     *
+     * @param javaPath the Java texture path, relative to the textures directory and without extension
+     * @return the outputs of the texture
+     */
+    @NotNull
+    public List<TextureOutput> outputs(@NotNull String javaPath) {
+        List<TextureOutput> outputs = this.outputs.get(javaPath);
+        if (outputs != null) {
+            return outputs;
+        }
+
+        return this.resolve(this.mappings.outputs(javaPath));
+    }
+
+    @NotNull
+    private List<TextureOutput> resolve(@NotNull List<String> bedrockPaths) {
+        List<TextureOutput> outputs = new ArrayList<>(bedrockPaths.size());
+        for (String bedrockPath : bedrockPaths) {
+            outputs.add(this.resolve(bedrockPath));
+        }
+
+        return List.copyOf(outputs);
+    }
+
+    @NotNull
+    private TextureOutput resolve(@NotNull String bedrockPath) {
+        if (this.textureSubdirectory != null) {
+            // TGA mappings only apply to vanilla texture locations
+            int separator = bedrockPath.indexOf('/');
+            if (separator != -1) {
+                return new TextureOutput(bedrockPath.substring(0, separator) + "/" + this.textureSubdirectory + bedrockPath.substring(separator) + ".png", null);
+            }
+
+            return new TextureOutput(bedrockPath + ".png", null);
+        }
+
+        PngToTgaMappings.TgaMapping mapping = this.tgaMappings.mapping(bedrockPath);
+        if (mapping == null) {
+            return new TextureOutput(bedrockPath + ".png", null);
+        }
+
+        return new TextureOutput(mapping.keep() ? bedrockPath + ".png" : null, mapping.value() + ".tga");
+    }
+
+    /**
+     * A single output of a texture.
+     *
+     * @param png the PNG file to write, relative to the textures directory, or null if none
+     * @param tga the TGA file to write, relative to the textures directory, or null if none
+     */
+    public record TextureOutput(@Nullable String png, @Nullable String tga) {
+    }
+}
@@ -28,9 +28,12 @@ package org.geysermc.pack.converter.converter.texture.transformer;
 
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.bedrock.resource.BedrockResourcePack;
+import org.geysermc.pack.converter.CancellationToken;
 import org.geysermc.pack.converter.PackConversionContext;
+import org.geysermc.pack.converter.PackIndex;
 import org.geysermc.pack.converter.converter.texture.TextureMappings;
 import org.geysermc.pack.converter.data.TextureConversionData;
+import org.geysermc.pack.converter.util.ImageMetadata;
 import org.geysermc.pack.converter.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -51,6 +54,7 @@ public class TransformContext {
     private final BedrockResourcePack bedrockPack;
     private final ResourcePack javaPack;
     private final Map<Key, Texture> byKey = new HashMap<>();
+    private final Map<Key, ImageMetadata> metadata = new HashMap<>();
 
     public TransformContext(
             PackConversionContext<TextureConversionData> conversionContext,
@@ -70,6 +74,35 @@ public class TransformContext {
         }
     }
 
+    /**
+     * Creates a context for the given textures, seeding the lookup
+     * and metadata caches from the pack index rather than probing
+     * every texture again.
+     */
+    public TransformContext(
+            PackConversionContext<TextureConversionData> conversionContext,
+            TextureMappings mappings,
+            Collection<Texture> textures,
+            BedrockResourcePack bedrockPack,
+            ResourcePack javaPack,
+            PackIndex packIndex
+    ) {
+        this.conversionContext = conversionContext;
+        this.mappings = mappings;
+        this.textures = textures;
+        this.bedrockPack = bedrockPack;
+        this.javaPack = javaPack;
+
+        for (Texture texture : textures) {
+            this.byKey.put(texture.key(), texture);
+
+            PackIndex.TextureEntry entry = packIndex.texture(texture.key());
+            if (entry != null && entry.texture() == texture && entry.metadata() != null) {
+                this.metadata.put(texture.key(), entry.metadata());
+            }
+        }
+    }
+
     public TextureMappings mappings() {
         return this.mappings;
     }
@@ -86,6 +119,16 @@ public class TransformContext {
         return this.conversionContext.data().vanillaPack();
     }
 
+    /**
+     * Gets the token of the conversion, for transformers doing enough
+     * work to check it themselves.
+     *
+     * @return the cancellation token
+     */
+    public CancellationToken cancellationToken() {
+        return this.conversionContext.cancellationToken();
+    }
+
     /**
      * Removes the texture from the list of textures and returns it.
      *
@@ -100,6 +143,7 @@ public class TransformContext {
         }
 
         this.textures.remove(remove);
+        this.metadata.remove(key);
         return remove;
     }
 
@@ -131,6 +175,7 @@ public class TransformContext {
         }
 
         this.textures.remove(remove);
+        this.metadata.remove(key);
         return remove;
     }
 
@@ -164,6 +209,55 @@ public class TransformContext {
         return this.byKey.containsKey(key);
     }
 
+    /**
+     * Reads the metadata (dimensions, format) of the texture with the
+     * given key, without decoding the image.
+     * <p>
+     * The result is cached until a new texture is offered under the same key.
+     *
+     * @param key the key of the texture
+     * @return the metadata of the texture, or null if the texture doesn't exist or could not be probed
+     * @throws IOException if an error occurs while reading the texture data
+     */
+    @Nullable
+    public ImageMetadata metadata(@NotNull Key key) throws IOException {
+        Texture texture = this.byKey.get(key);
+        if (texture == null) {
+            return null;
+        }
+
+        return this.metadata(texture);
+    }
+
+    /**
+     * Reads the metadata (dimensions, format) of the given texture,
+     * without decoding the image.
+     * <p>
+     * Textures that are part of this context are cached by their key,
+     * others (such as vanilla textures) are probed every time.
+     *
+     * @param texture the texture
+     * @return the metadata of the texture, or null if it could not be probed
+     * @throws IOException if an error occurs while reading the texture data
+     */
+    @Nullable
+    public ImageMetadata metadata(@NotNull Texture texture) throws IOException {
+        boolean cacheable = this.byKey.get(texture.key()) == texture;
+        if (cacheable) {
+            ImageMetadata cached = this.metadata.get(texture.key());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ImageMetadata metadata = ImageMetadata.read(texture.data().toByteArray());
+        if (cacheable && metadata != null) {
+            this.metadata.put(texture.key(), metadata);
+        }
+
+        return metadata;
+    }
+
     /**
      * Adds the given texture to the list of textures.
      *
@@ -184,6 +278,7 @@ public class TransformContext {
     public void offer(@NotNull Texture texture) {
         this.textures.add(texture);
         this.byKey.put(texture.key(), texture);
+        this.metadata.remove(texture.key());
     }
 
     public void debug(@NotNull String message) {
@@ -30,6 +30,7 @@ import com.google.auto.service.AutoService;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.Compositor;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
@@ -65,7 +66,7 @@ public class AtlasTransformer implements TextureTransformer {
                     atlasImage = new BufferedImage(stepImage.getWidth(), stepImage.getHeight() * (atlasCount + 1), BufferedImage.TYPE_INT_ARGB);
                 }
 
-                atlasImage.getGraphics().drawImage(stepImage, 0, (stepImage.getHeight() * i), null);
+                Compositor.draw(atlasImage, stepImage, 0, (stepImage.getHeight() * i));
             }
 
             if (atlasImage != null) {
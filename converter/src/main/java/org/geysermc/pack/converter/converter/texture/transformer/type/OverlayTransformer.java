@@ -30,11 +30,11 @@ import com.google.auto.service.AutoService;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.Compositor;
 import org.geysermc.pack.converter.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
@@ -131,23 +131,8 @@ public class OverlayTransformer implements TextureTransformer {
             float resizeY = (float) image.getHeight() / imageOverlay.getHeight();
             imageOverlay = ImageUtil.scale(imageOverlay, resizeX, resizeY);
 
-            for (int x = 0; x < image.getWidth(); x++) {
-                for (int y = 0; y < image.getHeight(); y++) {
-                    if (noReplace) {
-                        Color c = new Color(image.getRGB(x, y), true);
-
-                        if (c.getAlpha() > 0) continue;
-                    }
-
-                    Color c = new Color(imageOverlay.getRGB(x, y), true);
-
-                    if (c.getAlpha() == 255) {
-                        Color newCol = new Color(c.getRed(), c.getGreen(), c.getBlue(), 2);
-
-                        image.setRGB(x, y, ImageUtil.colorToARGB(newCol));
-                    }
-                }
-            }
+            // Copy the opaque overlay pixels with an alpha of 2, which Bedrock uses as the tint mask
+            Compositor.thresholdOverlay(image, imageOverlay, 255, 2, noReplace);
 
             context.offer(Key.key(Key.MINECRAFT_NAMESPACE, bedrockName), image, "png");
         }
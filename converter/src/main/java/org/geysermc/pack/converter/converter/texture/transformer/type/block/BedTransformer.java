@@ -31,13 +31,12 @@ import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
 import org.geysermc.pack.converter.util.ImageUtil;
+import org.geysermc.pack.converter.util.RemapPlan;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 @AutoService(TextureTransformer.class)
@@ -61,6 +60,7 @@ public class BedTransformer implements TextureTransformer {
             "white",
             "yellow"
     );
+    private static final RemapPlan PLAN = RemapPlan.load("bed");
 
     @Override
     public void transform(@NotNull TransformContext context) throws IOException {
@@ -74,41 +74,7 @@ public class BedTransformer implements TextureTransformer {
 
             BufferedImage bedImage = ImageUtil.ensureMinWidth(this.readImage(texture), 64);
 
-            int factor = bedImage.getWidth() / 64;
-
-            BufferedImage newBedImage = new BufferedImage(bedImage.getWidth(), bedImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics graphics = newBedImage.getGraphics();
-
-            // Top part
-            graphics.drawImage(ImageUtil.crop(bedImage, 0, 0, (44 * factor), (22 * factor)), 0, 0, null);
-
-            // Bottom part
-            graphics.drawImage(ImageUtil.crop(bedImage, 0, (28 * factor), (44 * factor), (16 * factor)), 0, (22 * factor), null);
-
-            // Bottom side
-            graphics.drawImage(ImageUtil.crop(bedImage, (22 * factor), (22 * factor), (16 * factor), (6 * factor)), (22 * factor), 0, null);
-
-            // Feet
-            List<int[]> feet = new ArrayList<>();
-            feet.add(new int[] {50, 0, 0, 44, 0});
-            feet.add(new int[] {50, 6, 0, 38, 90});
-            feet.add(new int[] {50, 12, 12, 44, -90});
-            feet.add(new int[] {50, 18, 12, 38, 180});
-
-            for (int[] values : feet) {
-                int fromX = values[0];
-                int fromY = values[1];
-                int toX = values[2];
-                int toY = values[3];
-                int rotateBottom = values[4];
-
-                graphics.drawImage(ImageUtil.crop(bedImage, ((fromX + 3) * factor), (fromY * factor), (3 * factor), (3 * factor)), ((toX + 3) * factor), ((toY + 3) * factor), null);
-                graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(bedImage, ((fromX + 6) * factor), (fromY * factor), (3 * factor), (3 * factor)), rotateBottom), ((toX + 9) * factor), ((toY + 3) * factor), null);
-                graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(bedImage, (fromX * factor), ((fromY + 3) * factor), (3 * factor), (3 * factor)), -90), (toX * factor), ((toY + 3) * factor), null);
-                graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(bedImage, ((fromX + 3) * factor), ((fromY + 3) * factor), (3 * factor), (3 * factor)), 180), ((toX + 6) * factor), (toY * factor), null);
-                graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(bedImage, ((fromX + 6) * factor), ((fromY + 3) * factor), (3 * factor), (3 * factor)), 90), ((toX + 6) * factor), ((toY + 3) * factor), null);
-                graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(bedImage, ((fromX + 9) * factor), ((fromY + 3) * factor), (3 * factor), (3 * factor)), 180), ((toX + 3) * factor), (toY * factor), null);
-            }
+            BufferedImage newBedImage = PLAN.apply(bedImage);
 
             context.offer(Key.key(Key.MINECRAFT_NAMESPACE, BED_PATH + "/" + bedColor + ".png"), newBedImage, "png");
         }
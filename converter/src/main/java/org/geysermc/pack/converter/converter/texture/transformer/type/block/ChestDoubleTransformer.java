@@ -31,10 +31,10 @@ import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
 import org.geysermc.pack.converter.util.ImageUtil;
+import org.geysermc.pack.converter.util.RemapPlan;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
@@ -46,7 +46,8 @@ public class ChestDoubleTransformer implements TextureTransformer {
             new ChestData("entity/chest/trapped_left.png", "entity/chest/trapped_right.png", "entity/chest/trapped_double.png"),
             new ChestData("entity/chest/christmas_left.png", "entity/chest/christmas_right.png", "entity/chest/christmas_double.png")
     );
-    
+    private static final RemapPlan PLAN = RemapPlan.load("chest_double");
+
     @Override
     public void transform(@NotNull TransformContext context) throws IOException {
         for (ChestData chest : CHEST_DATA) {
@@ -61,45 +62,7 @@ public class ChestDoubleTransformer implements TextureTransformer {
             BufferedImage leftImage = ImageUtil.ensureMinWidth(this.readImage(leftTexture), 64);
             BufferedImage rightImage = ImageUtil.ensureMinWidth(this.readImage(rightTexture), 64);
 
-            int factor = leftImage.getWidth() / 64;
-
-            BufferedImage newImage = new BufferedImage((128 * factor), (64 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics graphics = newImage.getGraphics();
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, 0, (14 * factor), (14 * factor), (5 * factor)), 180), 0, (14 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (29 * factor), (14 * factor), (14 * factor), (5 * factor)), 180), (44 * factor), (14 * factor), null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, 0, (33 * factor), (14 * factor), (10 * factor)), 180), 0, (33 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (29 * factor), (33 * factor), (14 * factor), (10 * factor)), 180), (44 * factor), (33 * factor), null);
-
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(rightImage, (29 * factor), 0, (15 * factor), (14 * factor)), false, true), (14 * factor), 0, null);
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(leftImage, (29 * factor), 0, (15 * factor), (14 * factor)), false, true), (29 * factor), 0, null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, (43 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (14 * factor), (14 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (43 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (29 * factor), (14 * factor), null);
-
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(rightImage, (29 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (14 * factor), (19 * factor), null);
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(leftImage, (29 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (29 * factor), (19 * factor), null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, (43 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (14 * factor), (33 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (43 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (29 * factor), (33 * factor), null);
-
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(rightImage, (14 * factor), 0, (15 * factor), (14 * factor)), false, true), (44 * factor), 0, null);
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(leftImage, (14 * factor), 0, (15 * factor), (14 * factor)), false, true), (59 * factor), 0, null);
-
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(rightImage, (14 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (44 * factor), (19 * factor), null);
-            graphics.drawImage(ImageUtil.flip(ImageUtil.crop(leftImage, (14 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (59 * factor), (19 * factor), null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (73 * factor), (14 * factor), null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (58 * factor), (14 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (73 * factor), (14 * factor), null);
-
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(leftImage, (14 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (58 * factor), (33 * factor), null);
-            graphics.drawImage(ImageUtil.rotate(ImageUtil.crop(rightImage, (14 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (73 * factor), (33 * factor), null);
-
-            graphics.drawImage(ImageUtil.crop(leftImage, 0, 0, (6 * factor), (6 * factor)), 0, 0, null);
-            graphics.drawImage(ImageUtil.crop(rightImage, 0, 0, (6 * factor), (6 * factor)), 0, 0, null);
+            BufferedImage newImage = PLAN.apply(leftImage, rightImage);
 
             context.offer(Key.key(Key.MINECRAFT_NAMESPACE, chest.bedrockName()), newImage, "png");
         }
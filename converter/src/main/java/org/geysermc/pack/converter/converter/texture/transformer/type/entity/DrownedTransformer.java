@@ -31,10 +31,10 @@ import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
 import org.geysermc.pack.converter.util.ImageUtil;
+import org.geysermc.pack.converter.util.RemapPlan;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
@@ -44,6 +44,7 @@ public class DrownedTransformer implements TextureTransformer {
     private static final String DROWNED_OUTER_LAYER_TEXTURE = "drowned_outer_layer";
     
     private static final String TEXTURE_PATH = "entity/zombie/%s.png";
+    private static final RemapPlan PLAN = RemapPlan.load("drowned");
     
     @Override
     public void transform(@NotNull TransformContext context) throws IOException {
@@ -59,17 +60,7 @@ public class DrownedTransformer implements TextureTransformer {
         BufferedImage fromImage = this.readImage(drownedTexture);
         BufferedImage overlayImage = ImageUtil.ensureMinWidth(this.readImage(outerLayerTexture), 64);
 
-        float factor = (float) fromImage.getWidth() / 64;
-
-        BufferedImage newImage = new BufferedImage(fromImage.getWidth(), fromImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics graphics = newImage.getGraphics();
-
-        graphics.drawImage(fromImage, 0, 0, null);
-
-        graphics.drawImage(ImageUtil.crop(overlayImage, 0, 0, (int) (32 * factor), (int) (16 * factor)), (int) (32 * factor), 0, null);
-        graphics.drawImage(ImageUtil.crop(overlayImage, 0, (int) (16 * factor), (int) (64 * factor), (int) (16 * factor)), 0, (int) (32 * factor), null);
-        graphics.drawImage(ImageUtil.crop(overlayImage, (int) (16 * factor), (int) (48 * factor), (int) (16 * factor), (int) (16 * factor)), 0, (int) (48 * factor), null);
-        graphics.drawImage(ImageUtil.crop(overlayImage, (int) (32 * factor), (int) (48 * factor), (int) (16 * factor), (int) (16 * factor)), (int) (48 * factor), (int) (48 * factor), null);
+        BufferedImage newImage = PLAN.apply(fromImage, overlayImage);
 
         context.offer(Key.key(Key.MINECRAFT_NAMESPACE, String.format(TEXTURE_PATH, DROWNED_TEXTURE)), newImage, "png");
     }
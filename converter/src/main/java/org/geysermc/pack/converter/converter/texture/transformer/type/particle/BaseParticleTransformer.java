@@ -30,16 +30,17 @@ import com.google.auto.service.AutoService;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.Compositor;
+import org.geysermc.pack.converter.util.ImageMetadata;
 import org.geysermc.pack.converter.util.ImageUtil;
 import org.geysermc.pack.converter.util.Spritesheet;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -88,26 +89,25 @@ public class BaseParticleTransformer implements TextureTransformer {
         Spritesheet spritesheet = new Spritesheet();
         int spriteSize = -1;
 
-        BufferedImage vanillaSprite = ImageUtil.loadImage("/spritesheets/particle_spritesheet.png");
-        
-        int[][] occupiedSectors = null;
+        // Only the sectors that are drawn to are tracked, rather than a grid sized by the sprite resolution
+        List<Sector> occupiedSectors = new ArrayList<>();
         for (int i = 0; i < TEXTURES.size(); i++) {
             TextureData textureData = TEXTURES.get(i);
             Texture[] textures = textureData.textures(context);
             Image[] images = new Image[textures.length];
-            for (Texture texture : textures) {
+            for (int j = 0; j < textures.length && spriteSize == -1; j++) {
+                Texture texture = textures[j];
                 if (texture == null) {
                     continue;
                 }
 
-                BufferedImage image = this.readImage(texture);
-                if (spriteSize == -1) {
-                    spriteSize = image.getWidth(null);
-                    
-                    vanillaSprite = ImageUtil.resize(vanillaSprite, spriteSize * spriteSize, spriteSize * spriteSize);
-                    occupiedSectors = new int[spriteSize * spriteSize][spriteSize * spriteSize];
-                    break;
+                // Only the dimensions are needed here, so avoid decoding the image
+                ImageMetadata metadata = context.metadata(texture);
+                if (metadata == null) {
+                    continue;
                 }
+
+                spriteSize = metadata.width();
             }
 
             // This is a bit of a hack, but ensures that all elements in the sprite
@@ -129,7 +129,7 @@ public class BaseParticleTransformer implements TextureTransformer {
                 BufferedImage image = ImageUtil.resize(this.readImage(texture), textureSize, textureSize);
                 images[j] = image;
                 
-                occupiedSectors[j][i] = textureSize;
+                occupiedSectors.add(new Sector(j, i, textureSize));
             }
 
             spritesheet.addRow(images);
@@ -146,32 +146,29 @@ public class BaseParticleTransformer implements TextureTransformer {
             spriteImage = ImageUtil.expandCanvas(spriteImage, expectedSize, expectedSize);
         }
 
-        vanillaSprite = ImageUtil.resize(vanillaSprite, spriteImage.getWidth(), spriteImage.getHeight());
-
-        Graphics2D graphics = vanillaSprite.createGraphics();
-        graphics.setBackground(new Color(0, 0, 0, 0));
+        BufferedImage vanillaSprite = ImageUtil.loadImage("/spritesheets/particle_spritesheet.png", spriteImage.getWidth(), spriteImage.getHeight());
 
-        for (int x = 0; x < occupiedSectors.length; x++) {
-            for (int y = 0; y < occupiedSectors[x].length; y++) {
-                int size = occupiedSectors[x][y];
-                if (size == 0) {
-                    continue;
-                }
-
-                int spriteX = x * spriteSize;
-                int spriteY = y * spriteSize;
-                graphics.clearRect(spriteX, spriteY, size, size);
-            }
+        for (Sector sector : occupiedSectors) {
+            Compositor.clear(vanillaSprite, sector.x() * spriteSize, sector.y() * spriteSize, sector.size(), sector.size());
         }
 
-        graphics.drawImage(spriteImage, 0, 0, null);
-        graphics.dispose();
+        Compositor.draw(vanillaSprite, spriteImage, 0, 0);
 
         context.debug(String.format("Creating particle spritesheet %s", OUTPUT));
 
         context.offer(Key.key(Key.MINECRAFT_NAMESPACE, PATH + "/" + OUTPUT), vanillaSprite, "png");
     }
 
+    /**
+     * A sector of the spritesheet that a sprite was drawn to.
+     *
+     * @param x the column of the sector
+     * @param y the row of the sector
+     * @param size the size of the sprite in pixels
+     */
+    record Sector(int x, int y, int size) {
+    }
+
     interface TextureData {
 
         Texture[] textures(@NotNull TransformContext context);
@@ -29,13 +29,12 @@ package org.geysermc.pack.converter.converter.texture.transformer.type.particle;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.Compositor;
 import org.geysermc.pack.converter.util.ImageUtil;
 import org.geysermc.pack.converter.util.Spritesheet;
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.texture.Texture;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.BitSet;
@@ -78,20 +77,16 @@ public class SpritesheetParticleTransformer implements TextureTransformer {
         }
 
         BufferedImage spriteImage = spritesheet.compile();
-        BufferedImage vanillaSprite = ImageUtil.resize(ImageUtil.loadImage("/spritesheets/" + this.vanillaSpritesheet + ".png"), spriteImage.getWidth(), spriteImage.getHeight());
-
-        Graphics2D graphics = vanillaSprite.createGraphics();
-        graphics.setBackground(new Color(0, 0, 0, 0));
+        BufferedImage vanillaSprite = ImageUtil.loadImage("/spritesheets/" + this.vanillaSpritesheet + ".png", spriteImage.getWidth(), spriteImage.getHeight());
 
         for (int i = 0; i < occupiedSectors.size(); i++) {
             if (occupiedSectors.get(i)) {
                 int y = i * size;
-                graphics.clearRect(0, y, size, size);
+                Compositor.clear(vanillaSprite, 0, y, size, size);
             }
         }
 
-        graphics.drawImage(spriteImage, 0, 0, null);
-        graphics.dispose();
+        Compositor.draw(vanillaSprite, spriteImage, 0, 0);
 
         context.debug(String.format("Creating particle spritesheet %s", this.bedrockPath));
 
@@ -30,8 +30,11 @@ import com.google.auto.service.AutoService;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.Compositor;
+import org.geysermc.pack.converter.util.ImageMetadata;
 import org.geysermc.pack.converter.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
+import team.unnamed.creative.base.Writable;
 import team.unnamed.creative.font.*;
 import team.unnamed.creative.font.Font;
 import team.unnamed.creative.texture.Texture;
@@ -39,11 +42,21 @@ import team.unnamed.creative.texture.Texture;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @AutoService(TextureTransformer.class)
 public class FontTransformer implements TextureTransformer {
@@ -93,99 +106,117 @@ public class FontTransformer implements TextureTransformer {
             }
         }
 
-        // Now we need to gather the images and calculate the sizes for this
-        // This could use with a little bit of optimisation...
-        Map<Byte, List<UnicodeFontData>> containedCharacters = new HashMap<>();
-        Map<Key, BufferedImage> images = new HashMap<>(); // Just so we aren't reading an image several times over
-
+        // Java uses the first provider that defines a character, so later definitions are ignored
+        Map<Character, UnicodeFontData> characters = new LinkedHashMap<>();
         for (UnicodeFontData fontData : unicodeFontData) {
-            byte[] bytes = String.valueOf(fontData.character()).getBytes(StandardCharsets.UTF_16BE);
-            byte upperData = bytes.length == 1 ? 0 : bytes[0]; // The first byte, determines which image this character will be written to
+            characters.putIfAbsent(fontData.character(), fontData);
+        }
 
-            containedCharacters.computeIfAbsent(upperData, ignored -> new ArrayList<>());
+        // Group the characters by the glyph page they belong to, which is the upper byte of the character
+        Map<Integer, List<UnicodeFontData>> containedCharacters = new TreeMap<>();
+        Map<Key, BufferedImage> images = new HashMap<>(); // Just so we aren't reading an image several times over
 
-            containedCharacters.get(upperData).add(fontData);
+        for (UnicodeFontData fontData : characters.values()) {
+            containedCharacters.computeIfAbsent(fontData.character() >>> 8, ignored -> new ArrayList<>()).add(fontData);
 
             fontData.computeCache(context, images);
         }
 
-        // A formatter for our hex value, used when writing the glyph files
-        HexFormat hexFormat = HexFormat.of();
+        // Pages don't depend on each other, so they are rendered in parallel and added afterwards
+        Map<Integer, byte[]> pages = new ConcurrentHashMap<>();
+        try {
+            containedCharacters.entrySet().parallelStream().forEach(data -> {
+                try {
+                    pages.put(data.getKey(), ImageUtil.toByteArray(renderPage(context, data.getValue(), images), "png"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-        for (Map.Entry<Byte, List<UnicodeFontData>> data : containedCharacters.entrySet()) {
-            if (data.getValue().isEmpty()) continue; // We have nothing to work with
+        // A formatter for our hex value, used when writing the glyph files
+        HexFormat hexFormat = HexFormat.of().withUpperCase();
 
-            // Determine the size the image should be to fit all our characters
-            // Better to default to something than an exception, so lets default to 1
-            int maxWidth = data.getValue().stream().mapToInt(
-                    fontData ->
-                            (int) (fontData.width() * fontData.fontData().scaleX())
-            ).max().orElse(1);
+        for (Map.Entry<Integer, byte[]> page : new TreeMap<>(pages).entrySet()) {
+            context.bedrockResourcePack().addExtraFile(
+                    page.getValue(),
+                    "font/glyph_%s.png".formatted(hexFormat.toHexDigits(page.getKey().byteValue()))
+            );
+        }
+    }
 
-            int maxHeight = data.getValue().stream().mapToInt(
-                    fontData ->
-                            (int) (fontData.height() * fontData.fontData().scaleY())
-            ).max().orElse(1);
+    private static BufferedImage renderPage(@NotNull TransformContext context, @NotNull List<UnicodeFontData> characters, @NotNull Map<Key, BufferedImage> images) {
+        // Determine the size the image should be to fit all our characters
+        // Better to default to something than an exception, so lets default to 1
+        int maxWidth = 1;
+        int maxHeight = 1;
+        for (UnicodeFontData fontData : characters) {
+            maxWidth = Math.max(maxWidth, (int) (fontData.width() * fontData.fontData().scaleX()));
+            maxHeight = Math.max(maxHeight, (int) (fontData.height() * fontData.fontData().scaleY()));
+        }
 
-            int size = Math.max(maxWidth, maxHeight);
+        int size = Math.max(maxWidth, maxHeight);
+        int pageSize = size * 16;
+        int[] page = new int[pageSize * pageSize];
 
-            BufferedImage bedrockImage = new BufferedImage(size * 16, size * 16, BufferedImage.TYPE_INT_ARGB);
+        for (UnicodeFontData fontData : characters) {
+            if (!fontData.shouldRead()) continue;
 
-            Graphics g = bedrockImage.getGraphics();
+            int dataWidth = fontData.width();
+            int dataHeight = fontData.height();
 
-            for (UnicodeFontData fontData : data.getValue()) {
-                if (!fontData.shouldRead()) continue;
+            BufferedImage javaImage = fontData.readJavaImage(images);
+            if (javaImage == null) {
+                context.warn("Missing font file, unable to write character '%s'.".formatted(fontData.character()));
+                continue;
+            }
 
-                int dataWidth = fontData.width();
-                int dataHeight = fontData.height();
-                int dataX = fontData.x();
-                int dataY = fontData.y();
+            // Now we can find where the character belongs in the bedrock image, from the lower byte of the character
+            int position = fontData.character() & 0xFF;
+            int desX = position % 16;
+            int desY = position / 16;
 
-                BufferedImage javaImage = fontData.readJavaImage(images);
-                if (javaImage == null) {
-                    context.warn("Missing font file, unable to write character '%s'.".formatted(fontData.character()));
-                    continue;
-                }
+            // Determine how to scale the image to ensure they're in line with every other character
+            float scaleX = (float) maxWidth / dataWidth;
+            float scaleY = (float) maxHeight / dataHeight;
+            float scale = Math.min(scaleX, scaleY); // Prevent stretching, use the minimum one
 
-                byte[] bytes = String.valueOf(fontData.character()).getBytes(StandardCharsets.UTF_16BE);
-                int position = bytes[bytes.length - 1] & 0xff; // The last byte of the character
-
-                // Now we can find where the character belongs in the bedrock image
-                int desX = position % 16;
-                int desY = position / 16;
-
-                // Determine how to scale the image to ensure they're in line with every other character
-                float scaleX = (float) maxWidth / dataWidth;
-                float scaleY = (float) maxHeight / dataHeight;
-                float scale = Math.min(scaleX, scaleY); // Prevent stretching, use the minimum one
-
-                // Since we don't stretch fully, we should offset to ensure the character appears correctly in bedrock
-                int xOffset = (size - dataWidth) / 2;
-                int yOffset = (size - dataHeight) / 2;
-
-                g.drawImage(
-                        ImageUtil.scale(
-                                ImageUtil.crop(
-                                        javaImage,
-                                        dataX * dataWidth,
-                                        dataY * dataHeight,
-                                        dataWidth,
-                                        dataHeight
-                                ),
-                                scale
-                        ),
-                        (desX * size) + xOffset,
-                        (desY * size) + yOffset,
-                        null
-                );
-            }
+            // Since we don't stretch fully, we should offset to ensure the character appears correctly in bedrock
+            int xOffset = (size - dataWidth) / 2;
+            int yOffset = (size - dataHeight) / 2;
 
-            context.bedrockResourcePack().addExtraFile(
-                    ImageUtil.toByteArray(bedrockImage, "png"),
-                    "font/glyph_%s.png"
-                            .formatted(hexFormat.toHexDigits(data.getKey()).toUpperCase())
+            drawGlyph(
+                    ImageUtil.pixels(javaImage), javaImage.getWidth(),
+                    fontData.x() * dataWidth, fontData.y() * dataHeight, dataWidth, dataHeight, scale,
+                    page, pageSize, (desX * size) + xOffset, (desY * size) + yOffset
             );
         }
+
+        return ImageUtil.fromPixels(page, pageSize, pageSize);
+    }
+
+    // Draws a glyph from its source image into the page with nearest neighbour scaling,
+    // without cropping or scaling it into intermediate images first
+    private static void drawGlyph(int[] source, int sourceWidth, int glyphX, int glyphY, int glyphWidth, int glyphHeight, float scale,
+                                  int[] page, int pageSize, int x, int y) {
+        int width = Math.round(glyphWidth * scale);
+        int height = Math.round(glyphHeight * scale);
+        int sourceHeight = source.length / sourceWidth;
+
+        for (int v = Math.max(0, -y); v < height && y + v < pageSize; v++) {
+            int sourceY = glyphY + Math.min(glyphHeight - 1, (int) ((v + 0.5f) / scale));
+            if (sourceY < 0 || sourceY >= sourceHeight) continue;
+
+            int row = (y + v) * pageSize + x;
+            for (int u = Math.max(0, -x); u < width && x + u < pageSize; u++) {
+                int sourceX = glyphX + Math.min(glyphWidth - 1, (int) ((u + 0.5f) / scale));
+                if (sourceX < 0 || sourceX >= sourceWidth) continue;
+
+                page[row + u] = Compositor.srcOver(source[sourceY * sourceWidth + sourceX], page[row + u]);
+            }
+        }
     }
 
     private List<UnicodeFontData> handleFont(@NotNull TransformContext context, FontProvider fontProvider) throws IOException {
@@ -201,10 +232,14 @@ public class FontTransformer implements TextureTransformer {
             Texture texture = context.peek(bitMapFontProvider.file());
             if (texture == null) return unicodeFontData; // We don't have the texture, so we can't continue
 
-            BufferedImage image = this.readImage(texture);
+            ImageMetadata metadata = context.metadata(texture);
+            if (metadata == null) {
+                context.warn("Unable to read font texture %s, continuing without.".formatted(bitMapFontProvider.file().asString()));
+                return unicodeFontData;
+            }
 
-            int width = image.getWidth() / bitMapFontProvider.characters().getFirst().length();
-            int height = image.getHeight() / bitMapFontProvider.characters().size();
+            int width = metadata.width() / bitMapFontProvider.characters().getFirst().length();
+            int height = metadata.height() / bitMapFontProvider.characters().size();
 
             int x = 0;
             int y = 0;
@@ -238,12 +273,102 @@ public class FontTransformer implements TextureTransformer {
                 unicodeFontData.addAll(handleFont(context, fontProvider1));
             }
         } else if (fontProvider instanceof UnihexFontProvider unihexFontProvider) {
-            // TODO Handle this type of font
+            // Only fonts shipped by the pack are converted, Bedrock already has its own unifont glyphs
+            Key hexFile = unihexFontProvider.hexFile();
+            Writable hexZip = context.javaResourcePack().unknownFile("assets/" + hexFile.namespace() + "/" + hexFile.value());
+            if (hexZip == null) return unicodeFontData;
+
+            // Unifont zips are several megabytes, so spool them to disk and stream the entries from there
+            Path hexZipFile = Files.createTempFile("unihex", ".zip");
+            try {
+                try (OutputStream output = Files.newOutputStream(hexZipFile)) {
+                    hexZip.write(output);
+                }
+
+                try (ZipInputStream stream = new ZipInputStream(Files.newInputStream(hexZipFile))) {
+                    ZipEntry entry;
+                    while ((entry = stream.getNextEntry()) != null) {
+                        if (entry.isDirectory() || !entry.getName().endsWith(".hex")) continue;
+
+                        readUnihex(context, stream, unihexFontProvider.sizeOverrides(), unicodeFontData);
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(hexZipFile);
+            }
         }
 
         return unicodeFontData;
     }
 
+    // Reads glyphs from a .hex file line by line, in the form "0041:<hex bitmap>",
+    // where each glyph is 16 pixels tall and 8, 12, 16 or 24 pixels wide
+    private static void readUnihex(@NotNull TransformContext context, @NotNull InputStream stream, @NotNull List<UnihexFontProvider.SizeOverride> sizeOverrides, @NotNull List<UnicodeFontData> unicodeFontData) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII));
+        HexFormat hexFormat = HexFormat.of();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int separator = line.indexOf(':');
+            if (separator <= 0) continue;
+
+            // parseInt accepts a leading sign, which is never valid in a hex file
+            int codePoint = -1;
+            if (Character.digit(line.charAt(0), 16) != -1) {
+                try {
+                    codePoint = Integer.parseInt(line, 0, separator, 16);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+
+            if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+                context.warn("Invalid unihex code point %s, continuing without.".formatted(line.substring(0, separator)));
+                continue;
+            }
+
+            if (codePoint > Character.MAX_VALUE) continue; // Bedrock glyph pages only cover the basic multilingual plane
+
+            int digits = line.length() - separator - 1;
+            if (digits != 32 && digits != 48 && digits != 64 && digits != 96) {
+                context.warn("Invalid unihex glyph for character %04X, continuing without.".formatted(codePoint));
+                continue;
+            }
+
+            byte[] bitmap;
+            try {
+                bitmap = hexFormat.parseHex(line, separator + 1, line.length());
+            } catch (IllegalArgumentException e) {
+                context.warn("Invalid unihex glyph for character %04X, continuing without.".formatted(codePoint));
+                continue;
+            }
+
+            int width = digits / 4;
+
+            // Like Java, only the used columns of a glyph are drawn, unless overridden
+            int left = -1;
+            int right = -1;
+            for (UnihexFontProvider.SizeOverride sizeOverride : sizeOverrides) {
+                if (codePoint >= sizeOverride.from() && codePoint <= sizeOverride.to()) {
+                    // Keep the override inside the bitmap, a right column before the left one draws nothing
+                    left = Math.max(0, Math.min(sizeOverride.left(), width - 1));
+                    right = Math.min(sizeOverride.right(), width - 1);
+                    break;
+                }
+            }
+
+            if (left == -1) {
+                for (int column = 0; column < width; column++) {
+                    if (UnihexFontData.isColumnUsed(bitmap, width, column)) {
+                        if (left == -1) left = column;
+                        right = column;
+                    }
+                }
+            }
+
+            unicodeFontData.add(new UnihexFontData((char) codePoint, bitmap, width, left, right));
+        }
+    }
+
     private void transformDefault8(@NotNull TransformContext context) throws IOException {
         // Don't attempt to write default8 if we have no data to pull from, otherwise it's vanilla to vanilla
         if (
@@ -507,6 +632,8 @@ public class FontTransformer implements TextureTransformer {
 
         @Override
         public void computeCache(TransformContext context, Map<Key, BufferedImage> imageCache) {
+            if (imageCache.containsKey(textureName)) return; // Shared by every character of the texture
+
             Texture texture = context.pollOrPeekVanilla(textureName);
 
             if (texture != null) {
@@ -529,6 +656,64 @@ public class FontTransformer implements TextureTransformer {
         }
     }
 
+    // Unihex implementation, drawn from the glyph bitmap rather than a texture
+    private record UnihexFontData(char character, byte[] bitmap, int bitmapWidth, int left, int right) implements UnicodeFontData {
+        private static final int HEIGHT = 16;
+
+        @Override
+        public BufferedImage readJavaImage(Map<Key, BufferedImage> imageCache) {
+            int width = width();
+            int[] pixels = new int[width * HEIGHT];
+            for (int row = 0; row < HEIGHT; row++) {
+                for (int column = 0; column < width; column++) {
+                    if (isSet(bitmap, row * bitmapWidth + left + column)) {
+                        pixels[row * width + column] = 0xFFFFFFFF;
+                    }
+                }
+            }
+
+            return ImageUtil.fromPixels(pixels, width, HEIGHT);
+        }
+
+        @Override
+        public boolean shouldRead() {
+            return left != -1 && right >= left;
+        }
+
+        @Override
+        public int x() {
+            return 0;
+        }
+
+        @Override
+        public int y() {
+            return 0;
+        }
+
+        @Override
+        public int width() {
+            return shouldRead() ? right - left + 1 : 1;
+        }
+
+        @Override
+        public int height() {
+            return HEIGHT;
+        }
+
+        // Bits are packed row by row, most significant bit first
+        static boolean isSet(byte[] bitmap, int index) {
+            return (bitmap[index >>> 3] & (0x80 >>> (index & 7))) != 0;
+        }
+
+        static boolean isColumnUsed(byte[] bitmap, int bitmapWidth, int column) {
+            for (int row = 0; row < HEIGHT; row++) {
+                if (isSet(bitmap, row * bitmapWidth + column)) return true;
+            }
+
+            return false;
+        }
+    }
+
     // The simplest font, *empty*
     private record SpaceFontData(char character, int spaces) implements UnicodeFontData {
         @Override
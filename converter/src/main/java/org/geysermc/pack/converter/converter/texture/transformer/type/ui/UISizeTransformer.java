@@ -34,8 +34,8 @@ import com.google.gson.JsonObject;
 import net.kyori.adventure.key.Key;
 import org.geysermc.pack.converter.converter.texture.transformer.TextureTransformer;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformContext;
+import org.geysermc.pack.converter.util.ImageMetadata;
 import org.jetbrains.annotations.NotNull;
-import team.unnamed.creative.texture.Texture;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -55,27 +55,25 @@ public class UISizeTransformer implements TextureTransformer {
 
     @Override
     public void transform(@NotNull TransformContext context) throws IOException {
-        Texture emptyXp = context.peek(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/experience_bar_background.png"));
+        ImageMetadata emptyXp = context.metadata(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/experience_bar_background.png"));
         if (emptyXp != null) {
-            writeUiJson(context, this.readImage(emptyXp), "experiencebarempty", FULLBARSLICE);
+            writeUiJson(context, emptyXp, "experiencebarempty", FULLBARSLICE);
 
             // Since we have the full image, we *don't* want this
             BufferedImage nubImage = new BufferedImage(11, 5, BufferedImage.TYPE_INT_ARGB);
             context.offer(Key.key(Key.MINECRAFT_NAMESPACE, "ui/experiencenub.png"), nubImage, "png");
         }
 
-        Texture fullXp = context.peek(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/experience_bar_progress.png"));
+        ImageMetadata fullXp = context.metadata(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/experience_bar_progress.png"));
         if (fullXp != null) {
-            writeUiJson(context, this.readImage(fullXp), "experiencebarfull", FULLBARSLICE);
+            writeUiJson(context, fullXp, "experiencebarfull", FULLBARSLICE);
         }
 
-        Texture locatorBg = context.peek(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/locator_bar_background.png"));
+        ImageMetadata locatorBg = context.metadata(Key.key(Key.MINECRAFT_NAMESPACE, "gui/sprites/hud/locator_bar_background.png"));
         if (locatorBg != null) {
-            BufferedImage image = this.readImage(locatorBg);
+            int scale = locatorBg.width() / 12;
 
-            int scale = image.getWidth() / 12;
-
-            writeUiJson(context, image, "locator_bg", FULLBARSLICE, scale * 182, image.getHeight());
+            writeUiJson(context, locatorBg, "locator_bg", FULLBARSLICE, scale * 182, locatorBg.height());
         }
     }
 
@@ -84,11 +82,11 @@ public class UISizeTransformer implements TextureTransformer {
         return TextureTransformer.ORDER_FIRST;
     }
 
-    private void writeUiJson(TransformContext context, BufferedImage image, String jsonName, JsonArray nineSlice) {
-        writeUiJson(context, image, jsonName, nineSlice, image.getWidth(), image.getHeight());
+    private void writeUiJson(TransformContext context, ImageMetadata image, String jsonName, JsonArray nineSlice) {
+        writeUiJson(context, image, jsonName, nineSlice, image.width(), image.height());
     }
 
-    private void writeUiJson(TransformContext context, BufferedImage image, String jsonName, JsonArray nineSlice, int customWidth, int customHeight) {
+    private void writeUiJson(TransformContext context, ImageMetadata image, String jsonName, JsonArray nineSlice, int customWidth, int customHeight) {
         JsonObject rootObject = new JsonObject();
         rootObject.add("nineslice_size", nineSlice);
 
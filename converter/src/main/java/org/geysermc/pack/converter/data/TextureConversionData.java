@@ -26,7 +26,11 @@
 
 package org.geysermc.pack.converter.data;
 
+import org.geysermc.pack.converter.converter.texture.PngToTgaMappings;
+import org.geysermc.pack.converter.converter.texture.TextureLimits;
 import org.geysermc.pack.converter.converter.texture.transformer.TransformedTexture;
+import org.geysermc.pack.converter.util.PngEncoder;
+import org.geysermc.pack.converter.util.PngOptimizer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.ResourcePack;
@@ -38,11 +42,23 @@ import java.util.List;
 public class TextureConversionData extends BaseConversionData {
     private final List<TransformedTexture> transformedTextures = new ArrayList<>();
     private final String textureSubdirectory;
+    private final PngEncoder pngEncoder;
+    private final PngToTgaMappings tgaMappings;
+    private final PngOptimizer pngOptimizer;
+    private final TextureLimits textureLimits;
 
     public TextureConversionData(@NotNull Path inputDirectory, @NotNull Path outputDirectory, @Nullable String textureSubdirectory, @NotNull ResourcePack vanillaPack) {
+        this(inputDirectory, outputDirectory, textureSubdirectory, vanillaPack, new PngEncoder(), PngToTgaMappings.defaults(), null, null);
+    }
+
+    public TextureConversionData(@NotNull Path inputDirectory, @NotNull Path outputDirectory, @Nullable String textureSubdirectory, @NotNull ResourcePack vanillaPack, @NotNull PngEncoder pngEncoder, @NotNull PngToTgaMappings tgaMappings, @Nullable PngOptimizer pngOptimizer, @Nullable TextureLimits textureLimits) {
         super(inputDirectory, outputDirectory, vanillaPack);
 
         this.textureSubdirectory = textureSubdirectory;
+        this.pngEncoder = pngEncoder;
+        this.tgaMappings = tgaMappings;
+        this.pngOptimizer = pngOptimizer;
+        this.textureLimits = textureLimits;
     }
 
     public void addTransformedTexture(@NotNull TransformedTexture transformedTexture) {
@@ -58,4 +74,24 @@ public class TextureConversionData extends BaseConversionData {
     public String textureSubdirectory() {
         return this.textureSubdirectory;
     }
+
+    @NotNull
+    public PngEncoder pngEncoder() {
+        return this.pngEncoder;
+    }
+
+    @NotNull
+    public PngToTgaMappings tgaMappings() {
+        return this.tgaMappings;
+    }
+
+    @Nullable
+    public PngOptimizer pngOptimizer() {
+        return this.pngOptimizer;
+    }
+
+    @Nullable
+    public TextureLimits textureLimits() {
+        return this.textureLimits;
+    }
 }
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Compositing operations on packed, non-premultiplied ARGB pixels.
+ * <p>
+ * These replace {@link java.awt.Graphics2D} for the many small
+ * copies and blends done while transforming textures, where setting
+ * up a graphics context costs more than the operation itself. All
+ * operations clip the affected region to the bounds of both images.
+ */
+public final class Compositor {
+
+    private Compositor() {
+    }
+
+    /**
+     * Draws the source image onto the destination image at the given
+     * position, blending with {@code SrcOver} like {@link java.awt.Graphics#drawImage}.
+     *
+     * @param destination the image to draw onto
+     * @param source the image to draw
+     * @param x the x position in the destination
+     * @param y the y position in the destination
+     */
+    public static void draw(@NotNull BufferedImage destination, @NotNull BufferedImage source, int x, int y) {
+        int[] pixels = ImageUtil.pixels(source);
+        edit(destination, target -> srcOver(pixels, source.getWidth(), source.getHeight(), 0, 0, target, destination.getWidth(), destination.getHeight(), x, y, source.getWidth(), source.getHeight()));
+    }
+
+    /**
+     * Copies a region of the source image onto the destination image,
+     * replacing the destination pixels, optionally flipping the region.
+     *
+     * @param destination the image to copy onto
+     * @param source the image to copy from
+     * @param sourceX the x position of the region in the source
+     * @param sourceY the y position of the region in the source
+     * @param x the x position in the destination
+     * @param y the y position in the destination
+     * @param width the width of the region
+     * @param height the height of the region
+     * @param flipX whether to flip the region horizontally
+     * @param flipY whether to flip the region vertically
+     */
+    public static void copy(@NotNull BufferedImage destination, @NotNull BufferedImage source, int sourceX, int sourceY, int x, int y, int width, int height, boolean flipX, boolean flipY) {
+        int[] pixels = ImageUtil.pixels(source);
+        edit(destination, target -> copy(pixels, source.getWidth(), source.getHeight(), sourceX, sourceY, target, destination.getWidth(), destination.getHeight(), x, y, width, height, flipX, flipY));
+    }
+
+    /**
+     * Clears a region of the image to fully transparent.
+     *
+     * @param image the image
+     * @param x the x position of the region
+     * @param y the y position of the region
+     * @param width the width of the region
+     * @param height the height of the region
+     */
+    public static void clear(@NotNull BufferedImage image, int x, int y, int width, int height) {
+        edit(image, target -> fill(target, image.getWidth(), image.getHeight(), x, y, width, height, 0));
+    }
+
+    /**
+     * Copies every pixel of the overlay that is at least as opaque as the
+     * threshold onto the base image, giving it the given alpha. Both images
+     * must be the same size.
+     *
+     * @param base the image to copy onto
+     * @param overlay the overlay image
+     * @param threshold the minimum alpha of overlay pixels to copy
+     * @param alpha the alpha the copied pixels get
+     * @param onlyTransparent whether to only replace fully transparent base pixels
+     */
+    public static void thresholdOverlay(@NotNull BufferedImage base, @NotNull BufferedImage overlay, int threshold, int alpha, boolean onlyTransparent) {
+        if (base.getWidth() != overlay.getWidth() || base.getHeight() != overlay.getHeight()) {
+            throw new IllegalArgumentException("Overlay size " + overlay.getWidth() + "x" + overlay.getHeight()
+                    + " does not match base size " + base.getWidth() + "x" + base.getHeight());
+        }
+
+        int[] pixels = ImageUtil.pixels(overlay);
+        edit(base, target -> thresholdOverlay(target, pixels, target.length, threshold, alpha, onlyTransparent));
+    }
+
+    /**
+     * Copies a region between two rasters, replacing the destination pixels.
+     *
+     * @param source the source pixels
+     * @param sourceWidth the width of the source
+     * @param sourceHeight the height of the source
+     * @param sourceX the x position of the region in the source
+     * @param sourceY the y position of the region in the source
+     * @param destination the destination pixels
+     * @param destinationWidth the width of the destination
+     * @param destinationHeight the height of the destination
+     * @param x the x position in the destination
+     * @param y the y position in the destination
+     * @param width the width of the region
+     * @param height the height of the region
+     * @param flipX whether to flip the region horizontally
+     * @param flipY whether to flip the region vertically
+     */
+    public static void copy(int @NotNull [] source, int sourceWidth, int sourceHeight, int sourceX, int sourceY,
+                            int @NotNull [] destination, int destinationWidth, int destinationHeight, int x, int y,
+                            int width, int height, boolean flipX, boolean flipY) {
+        Region region = Region.clip(sourceWidth, sourceHeight, sourceX, sourceY, destinationWidth, destinationHeight, x, y, width, height, flipX, flipY);
+        if (region == null) {
+            return;
+        }
+
+        for (int row = 0; row < region.height; row++) {
+            int sourceRow = region.sourceY + (flipY ? region.height - 1 - row : row);
+            int sourceOffset = sourceRow * sourceWidth + region.sourceX;
+            int destinationOffset = (region.y + row) * destinationWidth + region.x;
+            if (!flipX) {
+                System.arraycopy(source, sourceOffset, destination, destinationOffset, region.width);
+                continue;
+            }
+
+            for (int column = 0; column < region.width; column++) {
+                destination[destinationOffset + column] = source[sourceOffset + region.width - 1 - column];
+            }
+        }
+    }
+
+    /**
+     * Blends a region of the source onto the destination with {@code SrcOver}.
+     *
+     * @param source the source pixels
+     * @param sourceWidth the width of the source
+     * @param sourceHeight the height of the source
+     * @param sourceX the x position of the region in the source
+     * @param sourceY the y position of the region in the source
+     * @param destination the destination pixels
+     * @param destinationWidth the width of the destination
+     * @param destinationHeight the height of the destination
+     * @param x the x position in the destination
+     * @param y the y position in the destination
+     * @param width the width of the region
+     * @param height the height of the region
+     */
+    public static void srcOver(int @NotNull [] source, int sourceWidth, int sourceHeight, int sourceX, int sourceY,
+                               int @NotNull [] destination, int destinationWidth, int destinationHeight, int x, int y,
+                               int width, int height) {
+        Region region = Region.clip(sourceWidth, sourceHeight, sourceX, sourceY, destinationWidth, destinationHeight, x, y, width, height, false, false);
+        if (region == null) {
+            return;
+        }
+
+        for (int row = 0; row < region.height; row++) {
+            int sourceOffset = (region.sourceY + row) * sourceWidth + region.sourceX;
+            int destinationOffset = (region.y + row) * destinationWidth + region.x;
+            for (int column = 0; column < region.width; column++) {
+                int index = destinationOffset + column;
+                destination[index] = srcOver(source[sourceOffset + column], destination[index]);
+            }
+        }
+    }
+
+    /**
+     * Fills a region of the raster with a single color.
+     *
+     * @param destination the destination pixels
+     * @param destinationWidth the width of the destination
+     * @param destinationHeight the height of the destination
+     * @param x the x position of the region
+     * @param y the y position of the region
+     * @param width the width of the region
+     * @param height the height of the region
+     * @param argb the color to fill with
+     */
+    public static void fill(int @NotNull [] destination, int destinationWidth, int destinationHeight, int x, int y, int width, int height, int argb) {
+        int fromX = Math.max(0, x);
+        int fromY = Math.max(0, y);
+        int toX = Math.min(destinationWidth, x + width);
+        int toY = Math.min(destinationHeight, y + height);
+        for (int row = fromY; row < toY; row++) {
+            int offset = row * destinationWidth;
+            for (int column = fromX; column < toX; column++) {
+                destination[offset + column] = argb;
+            }
+        }
+    }
+
+    /**
+     * Copies every overlay pixel that is at least as opaque as the threshold
+     * onto the base, giving it the given alpha.
+     *
+     * @param base the base pixels
+     * @param overlay the overlay pixels
+     * @param length the amount of pixels
+     * @param threshold the minimum alpha of overlay pixels to copy
+     * @param alpha the alpha the copied pixels get
+     * @param onlyTransparent whether to only replace fully transparent base pixels
+     */
+    public static void thresholdOverlay(int @NotNull [] base, int @NotNull [] overlay, int length, int threshold, int alpha, boolean onlyTransparent) {
+        int alphaBits = (alpha & 0xFF) << 24;
+        for (int i = 0; i < length; i++) {
+            int color = overlay[i];
+            if (color >>> 24 < threshold || (onlyTransparent && base[i] >>> 24 != 0)) {
+                continue;
+            }
+
+            base[i] = (color & 0xFFFFFF) | alphaBits;
+        }
+    }
+
+    /**
+     * Blends a single source pixel over a destination pixel.
+     *
+     * @param source the source color
+     * @param destination the destination color
+     * @return the blended color
+     */
+    public static int srcOver(int source, int destination) {
+        int sourceAlpha = source >>> 24;
+        if (sourceAlpha == 0xFF) {
+            return source;
+        }
+
+        if (sourceAlpha == 0) {
+            return destination;
+        }
+
+        int destinationAlpha = destination >>> 24;
+        if (destinationAlpha == 0) {
+            return source;
+        }
+
+        // Non-premultiplied Porter-Duff source over, in 8-bit fixed point
+        int inverse = 0xFF - sourceAlpha;
+        int weightedDestination = div255(destinationAlpha * inverse);
+        int alpha = sourceAlpha + weightedDestination;
+
+        int red = (((source >> 16) & 0xFF) * sourceAlpha + ((destination >> 16) & 0xFF) * weightedDestination + alpha / 2) / alpha;
+        int green = (((source >> 8) & 0xFF) * sourceAlpha + ((destination >> 8) & 0xFF) * weightedDestination + alpha / 2) / alpha;
+        int blue = ((source & 0xFF) * sourceAlpha + (destination & 0xFF) * weightedDestination + alpha / 2) / alpha;
+        return alpha << 24 | red << 16 | green << 8 | blue;
+    }
+
+    private static int div255(int value) {
+        return (value + 128 + ((value + 128) >>> 8)) >>> 8;
+    }
+
+    private static void edit(BufferedImage image, PixelEditor editor) {
+        int[] pixels = ImageUtil.pixels(image);
+        editor.edit(pixels);
+
+        // Images that are not backed by a plain ARGB array got a copy, so write it back
+        if (!isDirect(image, pixels)) {
+            image.setRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
+        }
+    }
+
+    private static boolean isDirect(BufferedImage image, int[] pixels) {
+        return image.getRaster().getDataBuffer() instanceof DataBufferInt buffer
+                && image.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && buffer.getData() == pixels;
+    }
+
+    @FunctionalInterface
+    private interface PixelEditor {
+        void edit(int[] pixels);
+    }
+
+    /**
+     * A region clipped to the bounds of both the source and destination.
+     */
+    private record Region(int sourceX, int sourceY, int x, int y, int width, int height) {
+
+        static Region clip(int sourceWidth, int sourceHeight, int sourceX, int sourceY,
+                           int destinationWidth, int destinationHeight, int x, int y,
+                           int width, int height, boolean flipX, boolean flipY) {
+            // Clip against the source first, mirrored when flipping as the region is read backwards
+            int left = Math.max(0, -sourceX);
+            int right = Math.max(0, sourceX + width - sourceWidth);
+            int top = Math.max(0, -sourceY);
+            int bottom = Math.max(0, sourceY + height - sourceHeight);
+
+            int destinationLeft = flipX ? right : left;
+            int destinationRight = flipX ? left : right;
+            int destinationTop = flipY ? bottom : top;
+            int destinationBottom = flipY ? top : bottom;
+
+            // Then against the destination, mirrored back onto the source
+            int extraLeft = Math.max(0, -(x + destinationLeft));
+            int extraRight = Math.max(0, x + width - destinationRight - destinationWidth);
+            int extraTop = Math.max(0, -(y + destinationTop));
+            int extraBottom = Math.max(0, y + height - destinationBottom - destinationHeight);
+
+            destinationLeft += extraLeft;
+            destinationRight += extraRight;
+            destinationTop += extraTop;
+            destinationBottom += extraBottom;
+
+            int clippedWidth = width - destinationLeft - destinationRight;
+            int clippedHeight = height - destinationTop - destinationBottom;
+            if (clippedWidth <= 0 || clippedHeight <= 0) {
+                return null;
+            }
+
+            int sourceLeft = flipX ? destinationRight : destinationLeft;
+            int sourceTop = flipY ? destinationBottom : destinationTop;
+            return new Region(sourceX + sourceLeft, sourceY + sourceTop, x + destinationLeft, y + destinationTop, clippedWidth, clippedHeight);
+        }
+    }
+}
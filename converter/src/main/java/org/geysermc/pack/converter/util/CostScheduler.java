@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs independent tasks of very different sizes on a fixed number of
+ * workers, longest processing time first.
+ * <p>
+ * Tasks are ordered by their estimated cost, and every worker that runs
+ * out of work takes the most expensive task left. Starting with the
+ * largest tasks keeps a few big ones from being picked up last, leaving
+ * every other worker idle while they finish.
+ * <p>
+ * Workers run on a shared pool of daemon threads unless another
+ * executor is given, so runs don't each start their own threads.
+ */
+public class CostScheduler {
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "PackConverter scheduler worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private ExecutorService executor = SHARED_EXECUTOR;
+
+    /**
+     * Sets the number of workers tasks are run on.
+     *
+     * @param workers the number of workers
+     * @return this instance
+     */
+    public CostScheduler workers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be at least 1, got " + workers);
+        }
+
+        this.workers = workers;
+        return this;
+    }
+
+    public int workers() {
+        return this.workers;
+    }
+
+    /**
+     * Sets the executor the workers are run on. The executor is not shut
+     * down by the scheduler, and should be able to run as many tasks at
+     * once as there are workers, or fewer workers end up running.
+     *
+     * @param executor the executor
+     * @return this instance
+     */
+    public CostScheduler executor(@NotNull ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @NotNull
+    public ExecutorService executor() {
+        return this.executor;
+    }
+
+    /**
+     * Runs every task, returning once all of them have finished.
+     * <p>
+     * If a task fails, no further tasks are started and the first failure
+     * is rethrown once the running tasks have finished.
+     *
+     * @param tasks the tasks to run
+     * @param cost the estimated cost of a task, in any unit
+     * @param task the action to run for each task
+     * @param <T> the type of the tasks
+     * @return the timings of the run
+     * @throws IOException if a task failed with an I/O error
+     */
+    @NotNull
+    public <T> Result run(@NotNull List<T> tasks, @NotNull ToLongFunction<T> cost, @NotNull Task<T> task) throws IOException {
+        List<T> ordered = new ArrayList<>(tasks);
+        ordered.sort(Comparator.comparingLong(cost).reversed());
+
+        int workers = Math.max(1, Math.min(this.workers, ordered.size()));
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicLong busyNanos = new AtomicLong();
+        AtomicLong longestNanos = new AtomicLong();
+
+        Runnable worker = () -> {
+            int index;
+            while (!failed.get() && (index = next.getAndIncrement()) < ordered.size()) {
+                long start = System.nanoTime();
+                try {
+                    task.run(ordered.get(index));
+                } catch (IOException e) {
+                    failed.set(true);
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException | Error e) {
+                    failed.set(true);
+                    throw e;
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    busyNanos.addAndGet(elapsed);
+                    longestNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            }
+        };
+
+        long start = System.nanoTime();
+        if (workers == 1) {
+            try {
+                worker.run();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            try {
+                for (int i = 0; i < workers; i++) {
+                    futures.add(this.executor.submit(worker));
+                }
+
+                Throwable failure = null;
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.set(true);
+                        throw new IOException("Interrupted while running tasks", e);
+                    }
+                }
+
+                if (failure instanceof UncheckedIOException e) {
+                    throw e.getCause();
+                } else if (failure instanceof RuntimeException e) {
+                    throw e;
+                } else if (failure instanceof Error e) {
+                    throw e;
+                }
+            } finally {
+                // Only does anything if the run was interrupted, as every worker has finished otherwise
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        return new Result(ordered.size(), workers, System.nanoTime() - start, busyNanos.get(), longestNanos.get());
+    }
+
+    /**
+     * A task run by the scheduler.
+     *
+     * @param <T> the type of the tasks
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+
+        void run(@NotNull T task) throws IOException;
+    }
+
+    /**
+     * The timings of a scheduler run.
+     *
+     * @param tasks the number of tasks that were run
+     * @param workers the number of workers the tasks were run on
+     * @param wallNanos the time from the first task starting to the last one finishing
+     * @param busyNanos the time spent in tasks, summed over all workers
+     * @param longestNanos the time taken by the longest task, a lower bound for the wall time
+     */
+    public record Result(int tasks, int workers, long wallNanos, long busyNanos, long longestNanos) {
+
+        /**
+         * Gets how much of the available worker time was spent running
+         * tasks, where 1 means every worker was busy until the end.
+         *
+         * @return the parallel efficiency, between 0 and 1
+         */
+        public double efficiency() {
+            if (this.wallNanos <= 0) {
+                return 1;
+            }
+
+            return Math.min(1, (double) this.busyNanos / ((double) this.wallNanos * this.workers));
+        }
+    }
+}
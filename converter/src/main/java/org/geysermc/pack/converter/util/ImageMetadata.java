@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Basic information about an encoded image, read from its
+ * header without decoding any pixel data.
+ *
+ * @param format the format of the image
+ * @param width the width of the image
+ * @param height the height of the image
+ * @param bitDepth the bits per channel (PNG) or per pixel (TGA), or -1 if unknown
+ * @param alpha whether the image declares an alpha channel
+ */
+public record ImageMetadata(@NotNull Format format, int width, int height, int bitDepth, boolean alpha) {
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final int PNG_IHDR_END = 8 + 8 + 13;
+    private static final int TGA_HEADER_SIZE = 18;
+
+    /**
+     * Reads the metadata of the given encoded image.
+     * <p>
+     * PNG and TGA headers are parsed directly, any other
+     * format falls back to the header reader of the matching
+     * ImageIO plugin.
+     *
+     * @param data the encoded image
+     * @return the image metadata, or null if the format is not recognized or the header is malformed
+     */
+    @Nullable
+    public static ImageMetadata read(byte @NotNull [] data) {
+        try {
+            ImageMetadata metadata = readPng(data);
+            if (metadata != null) {
+                return metadata;
+            }
+
+            metadata = readTga(data);
+            if (metadata != null) {
+                return metadata;
+            }
+
+            return readGeneric(data);
+        } catch (RuntimeException e) {
+            // Image plugins can fail in all sorts of ways on corrupt data, which is no reason to fail the conversion
+            return null;
+        }
+    }
+
+    /**
+     * Gets the amount of memory the image occupies once decoded
+     * into a 32-bit ARGB raster.
+     *
+     * @return the decoded size in bytes
+     */
+    public long decodedSize() {
+        return (long) this.width * this.height * 4;
+    }
+
+    @Nullable
+    private static ImageMetadata readPng(byte @NotNull [] data) {
+        if (data.length < PNG_IHDR_END) {
+            return null;
+        }
+
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (data[i] != PNG_SIGNATURE[i]) {
+                return null;
+            }
+        }
+
+        // The IHDR chunk is always the first chunk, directly after the signature
+        if (data[12] != 'I' || data[13] != 'H' || data[14] != 'D' || data[15] != 'R') {
+            return null;
+        }
+
+        int width = readIntBE(data, 16);
+        int height = readIntBE(data, 20);
+        int bitDepth = data[24] & 0xFF;
+        int colorType = data[25] & 0xFF;
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+
+        // Color types 4 (grayscale + alpha) and 6 (RGBA) carry an alpha channel. Palette
+        // and other images may still be transparent through a tRNS chunk, so scan for it
+        boolean alpha = colorType == 4 || colorType == 6 || hasPngChunk(data, 't', 'R', 'N', 'S');
+        return new ImageMetadata(Format.PNG, width, height, bitDepth, alpha);
+    }
+
+    private static boolean hasPngChunk(byte @NotNull [] data, char a, char b, char c, char d) {
+        int offset = PNG_SIGNATURE.length;
+        while (offset + 8 <= data.length) {
+            int length = readIntBE(data, offset);
+            // A corrupt length could otherwise overflow the offset of the next chunk
+            if (length < 0 || length > data.length - offset - 12) {
+                return false;
+            }
+
+            if (data[offset + 4] == a && data[offset + 5] == b && data[offset + 6] == c && data[offset + 7] == d) {
+                return true;
+            }
+
+            // Transparency must come before the image data, no need to look further
+            if (data[offset + 4] == 'I' && data[offset + 5] == 'D' && data[offset + 6] == 'A' && data[offset + 7] == 'T') {
+                return false;
+            }
+
+            offset += length + 12;
+        }
+
+        return false;
+    }
+
+    @Nullable
+    private static ImageMetadata readTga(byte @NotNull [] data) {
+        if (data.length < TGA_HEADER_SIZE) {
+            return null;
+        }
+
+        int colorMapType = data[1] & 0xFF;
+        int imageType = data[2] & 0xFF;
+        int width = (data[12] & 0xFF) | (data[13] & 0xFF) << 8;
+        int height = (data[14] & 0xFF) | (data[15] & 0xFF) << 8;
+        int pixelDepth = data[16] & 0xFF;
+        int descriptor = data[17] & 0xFF;
+
+        // TGA has no signature, so be strict about what a valid header looks like
+        if (colorMapType > 1 || width == 0 || height == 0) {
+            return null;
+        }
+
+        boolean validType = switch (imageType) {
+            case 1, 9 -> colorMapType == 1 && pixelDepth == 8;
+            case 2, 10 -> pixelDepth == 16 || pixelDepth == 24 || pixelDepth == 32;
+            case 3, 11 -> pixelDepth == 8 || pixelDepth == 16;
+            default -> false;
+        };
+
+        if (!validType) {
+            return null;
+        }
+
+        boolean alpha = (descriptor & 0x0F) > 0;
+        return new ImageMetadata(Format.TGA, width, height, pixelDepth, alpha);
+    }
+
+    @Nullable
+    private static ImageMetadata readGeneric(byte @NotNull [] data) {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            if (stream == null) {
+                return null;
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return new ImageMetadata(
+                        Format.OTHER,
+                        reader.getWidth(0),
+                        reader.getHeight(0),
+                        -1,
+                        reader.getRawImageType(0) == null || reader.getRawImageType(0).getColorModel().hasAlpha()
+                );
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int readIntBE(byte @NotNull [] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+
+    public enum Format {
+        PNG,
+        TGA,
+        OTHER
+    }
+}
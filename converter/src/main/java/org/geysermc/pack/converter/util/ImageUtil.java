@@ -31,25 +31,34 @@ import org.jetbrains.annotations.NotNull;
 import javax.imageio.ImageIO;
 import java.awt.AlphaComposite;
 import java.awt.Color;
-import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ImageUtil {
+    private static final PngEncoder PNG_ENCODER = new PngEncoder();
+
+    // Larger resized resources are not worth keeping around for the lifetime of the process
+    private static final int MAX_CACHED_RESOURCE_PIXELS = 2048 * 2048;
+    private static final Map<ResourceKey, CachedImage> RESOURCE_CACHE = new ConcurrentHashMap<>();
 
     /**
      * @see ImageUtil#crop(BufferedImage, int, int, int, int)
@@ -70,9 +79,7 @@ public class ImageUtil {
      */
     public static BufferedImage crop(BufferedImage img, int x, int y, int width, int height) {
         BufferedImage dest = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = dest.getGraphics();
-        g.drawImage(img, 0, 0, width, height, x, y, x + width, y+ height, null);
-        g.dispose();
+        Compositor.copy(dest, img, x, y, 0, 0, width, height, false, false);
         return dest;
     }
 
@@ -98,6 +105,12 @@ public class ImageUtil {
     public static BufferedImage scale(BufferedImage img, float scaleX, float scaleY) {
         int w = img.getWidth();
         int h = img.getHeight();
+
+        // Whole factors are plain pixel replication, which is much cheaper done directly
+        if (scaleX >= 1 && scaleY >= 1 && scaleX == (int) scaleX && scaleY == (int) scaleY) {
+            return scaleInteger(img, (int) scaleX, (int) scaleY);
+        }
+
         BufferedImage after = new BufferedImage(Math.round(w * scaleX), Math.round(h * scaleY), BufferedImage.TYPE_INT_ARGB);
         AffineTransform at = new AffineTransform();
         at.scale(scaleX, scaleY);
@@ -105,6 +118,11 @@ public class ImageUtil {
         return scaleOp.filter(img, after);
     }
 
+    private static BufferedImage scaleInteger(BufferedImage img, int factorX, int factorY) {
+        int[] scaled = Resampler.replicate(pixels(img), img.getWidth(), img.getHeight(), factorX, factorY);
+        return fromPixels(scaled, img.getWidth() * factorX, img.getHeight() * factorY);
+    }
+
     /**
      * Scale the image so it has a width that is at least the min
      *
@@ -231,6 +249,10 @@ public class ImageUtil {
      * @throws IOException
      */
     public static byte[] toByteArray(BufferedImage img, String format) throws IOException {
+        if (format.equalsIgnoreCase("png")) {
+            return PNG_ENCODER.encode(img);
+        }
+
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         ImageIO.write(img, format, os);
         return os.toByteArray();
@@ -281,25 +303,6 @@ public class ImageUtil {
         return newImage;
     }
 
-    /**
-     * Convert an {@link Image} to {@link BufferedImage}
-     *
-     * @param img Image to use
-     * @return The converted image
-     */
-    private static BufferedImage toBufferedImage(Image img) {
-        if (img instanceof BufferedImage) {
-            return (BufferedImage) img;
-        }
-
-        BufferedImage newImage = new BufferedImage(img.getWidth(null), img.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-        Graphics g = newImage.getGraphics();
-        g.drawImage(img, 0, 0, null);
-
-        return newImage;
-    }
-
     /**
      * Returns a 32 bit version of the image.
      *
@@ -380,19 +383,18 @@ public class ImageUtil {
      */
     public static BufferedImage borderImage(BufferedImage img, int borderLeft, int borderTop, int borderRight, int borderBottom, int newWidth, int newHeight) {
         BufferedImage newImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = newImage.getGraphics();
 
-        g.drawImage(crop(img, 0, 0, borderLeft, borderTop), 0, 0, null);
-        g.drawImage(resize(crop(img, borderLeft, 0, (img.getWidth() - borderLeft - borderRight), borderTop), (newWidth - borderLeft - borderRight), borderTop), borderLeft, 0, null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), 0, borderRight, borderTop), (newWidth - borderRight), 0, null);
+        Compositor.draw(newImage, crop(img, 0, 0, borderLeft, borderTop), 0, 0);
+        Compositor.draw(newImage, resize(crop(img, borderLeft, 0, (img.getWidth() - borderLeft - borderRight), borderTop), (newWidth - borderLeft - borderRight), borderTop), borderLeft, 0);
+        Compositor.draw(newImage, crop(img, (img.getWidth() - borderRight), 0, borderRight, borderTop), (newWidth - borderRight), 0);
 
-        g.drawImage(resize(crop(img, 0, borderTop, borderLeft, (img.getHeight() - borderTop - borderBottom)), borderLeft, (newHeight - borderTop - borderBottom)), 0, borderTop, null);
-        g.drawImage(resize(crop(img, borderLeft, borderTop, (img.getWidth() - borderLeft - borderRight), (img.getHeight() - borderTop - borderBottom)), (newWidth - borderLeft - borderRight), (newHeight - borderTop - borderBottom)), borderLeft, borderTop, null);
-        g.drawImage(resize(crop(img, (img.getWidth() - borderRight), borderTop, borderRight, (img.getHeight() - borderTop - borderBottom)), borderRight, (newHeight - borderTop - borderBottom)), (newWidth - borderRight), borderTop, null);
+        Compositor.draw(newImage, resize(crop(img, 0, borderTop, borderLeft, (img.getHeight() - borderTop - borderBottom)), borderLeft, (newHeight - borderTop - borderBottom)), 0, borderTop);
+        Compositor.draw(newImage, resize(crop(img, borderLeft, borderTop, (img.getWidth() - borderLeft - borderRight), (img.getHeight() - borderTop - borderBottom)), (newWidth - borderLeft - borderRight), (newHeight - borderTop - borderBottom)), borderLeft, borderTop);
+        Compositor.draw(newImage, resize(crop(img, (img.getWidth() - borderRight), borderTop, borderRight, (img.getHeight() - borderTop - borderBottom)), borderRight, (newHeight - borderTop - borderBottom)), (newWidth - borderRight), borderTop);
 
-        g.drawImage(crop(img, 0, (img.getHeight() - borderBottom), borderLeft, borderRight), 0, (newHeight - borderBottom), null);
-        g.drawImage(resize(crop(img, borderLeft, (img.getHeight() - borderBottom), (img.getWidth() - borderLeft - borderRight), borderRight), (newWidth - borderLeft - borderRight), borderRight), borderLeft, (newHeight - borderBottom), null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), (img.getHeight() - borderBottom), borderRight, borderRight), (newWidth - borderRight), (newHeight - borderBottom), null);
+        Compositor.draw(newImage, crop(img, 0, (img.getHeight() - borderBottom), borderLeft, borderRight), 0, (newHeight - borderBottom));
+        Compositor.draw(newImage, resize(crop(img, borderLeft, (img.getHeight() - borderBottom), (img.getWidth() - borderLeft - borderRight), borderRight), (newWidth - borderLeft - borderRight), borderRight), borderLeft, (newHeight - borderBottom));
+        Compositor.draw(newImage, crop(img, (img.getWidth() - borderRight), (img.getHeight() - borderBottom), borderRight, borderRight), (newWidth - borderRight), (newHeight - borderBottom));
 
         return newImage;
     }
@@ -407,10 +409,57 @@ public class ImageUtil {
      * @return Scaled image to size
      */
     public static BufferedImage resize(BufferedImage img, int newWidth, int newHeight) {
+        return resize(img, newWidth, newHeight, Resampler.Filter.BOX);
+    }
+
+    /**
+     * Resize a {@link BufferedImage} to the requested size
+     *
+     * @param img Image to use
+     * @param newWidth Target width
+     * @param newHeight Target height
+     * @param filter Filter to resample with
+     * @return Scaled image to size
+     */
+    public static BufferedImage resize(BufferedImage img, int newWidth, int newHeight, Resampler.Filter filter) {
         if (img.getWidth() == newWidth && img.getHeight() == newHeight) return img;
 
-        Image scaled = img.getScaledInstance(newWidth, newHeight, BufferedImage.SCALE_SMOOTH);
-        return toBufferedImage(scaled);
+        return Resampler.resample(img, newWidth, newHeight, filter);
+    }
+
+    /**
+     * Get the non-premultiplied ARGB pixels of a {@link BufferedImage}, row by row.
+     * The backing array is returned directly when the image is already laid out as such,
+     * so changes to it are reflected in the image.
+     *
+     * @param img Image to use
+     * @return ARGB pixels
+     */
+    public static int[] pixels(BufferedImage img) {
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB
+                && img.getRaster().getParent() == null
+                && img.getRaster().getDataBuffer() instanceof DataBufferInt buffer
+                && img.getSampleModel() instanceof SinglePixelPackedSampleModel model
+                && model.getScanlineStride() == img.getWidth()
+                && buffer.getOffset() == 0) {
+            return buffer.getData();
+        }
+
+        return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+    }
+
+    /**
+     * Create a {@link BufferedImage} from non-premultiplied ARGB pixels.
+     *
+     * @param pixels ARGB pixels, row by row
+     * @param width Image width
+     * @param height Image height
+     * @return The created image
+     */
+    public static BufferedImage fromPixels(int[] pixels, int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(pixels, 0, ((DataBufferInt) img.getRaster().getDataBuffer()).getData(), 0, width * height);
+        return img;
     }
 
     /**
@@ -461,21 +510,8 @@ public class ImageUtil {
      * @return The flipped image
      */
     public static BufferedImage flip(BufferedImage image, boolean horizontal, boolean vertical) {
-        AffineTransform at = AffineTransform.getScaleInstance(horizontal ? -1 : 1, vertical ? -1 : 1);
-
-        if (horizontal) {
-            at.translate(-image.getWidth(null), 0);
-        }
-
-        if (vertical) {
-            at.translate(0, -image.getHeight(null));
-        }
-
         BufferedImage newImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = newImage.createGraphics();
-        g.transform(at);
-        g.drawImage(image, 0, 0, null);
-        g.dispose();
+        Compositor.copy(newImage, image, 0, 0, 0, 0, image.getWidth(), image.getHeight(), horizontal, vertical);
         return newImage;
     }
 
@@ -489,9 +525,7 @@ public class ImageUtil {
      */
     public static BufferedImage expandCanvas(BufferedImage image, int width, int height) {
         BufferedImage newImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = newImage.createGraphics();
-        g.drawImage(image, 0, 0, null);
-        g.dispose();
+        Compositor.copy(newImage, image, 0, 0, 0, 0, image.getWidth(), image.getHeight(), false, false);
         return newImage;
     }
 
@@ -515,26 +549,84 @@ public class ImageUtil {
      * @throws IOException
      */
     public static void writeTGA(Path file, BufferedImage image) throws IOException {
-        ImageIO.write(image, "TGA", file.toFile());
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file))) {
+            TgaWriter.write(image, false, stream);
+        }
     }
 
     /**
      * Load an image resource from the classpath.
+     * <p>
+     * Resources are decoded once and cached for the lifetime of the
+     * process, every call returns its own copy.
      *
      * @param path Path to resource
      * @return The loaded image
      */
     @NotNull
     public static BufferedImage loadImage(@NotNull String path) {
-        InputStream stream = ImageUtil.class.getResourceAsStream(path);
-        if (stream == null) {
-            throw new IllegalArgumentException("Resource not found: " + path);
+        return RESOURCE_CACHE.computeIfAbsent(new ResourceKey(path, -1, -1), key -> {
+            InputStream stream = ImageUtil.class.getResourceAsStream(path);
+            if (stream == null) {
+                throw new IllegalArgumentException("Resource not found: " + path);
+            }
+
+            try (stream) {
+                return CachedImage.of(ImageIO.read(stream));
+            } catch (IOException ex) {
+                throw new RuntimeException("Failed to load resource", ex);
+            }
+        }).toImage();
+    }
+
+    /**
+     * Load an image resource from the classpath, resized to the given size.
+     * <p>
+     * Resized resources are cached by size for the lifetime of the process
+     * as long as they are not too large, so repeated conversions at the same
+     * resolution skip both decoding and resampling. Every call returns its
+     * own copy.
+     *
+     * @param path Path to resource
+     * @param width Width to resize to
+     * @param height Height to resize to
+     * @return The loaded image
+     */
+    @NotNull
+    public static BufferedImage loadImage(@NotNull String path, int width, int height) {
+        ResourceKey key = new ResourceKey(path, width, height);
+        CachedImage cached = RESOURCE_CACHE.get(key);
+        if (cached == null) {
+            BufferedImage image = loadImage(path);
+            if (image.getWidth() != width || image.getHeight() != height) {
+                image = resize(image, width, height);
+            }
+
+            if ((long) width * height > MAX_CACHED_RESOURCE_PIXELS) {
+                return image;
+            }
+
+            cached = CachedImage.of(image);
+            CachedImage existing = RESOURCE_CACHE.putIfAbsent(key, cached);
+            if (existing != null) {
+                cached = existing;
+            }
+        }
+
+        return cached.toImage();
+    }
+
+    private record ResourceKey(String path, int width, int height) {
+    }
+
+    private record CachedImage(int[] pixels, int width, int height) {
+
+        static CachedImage of(BufferedImage image) {
+            return new CachedImage(ImageUtil.pixels(image).clone(), image.getWidth(), image.getHeight());
         }
 
-        try {
-            return ImageIO.read(stream);
-        } catch (IOException ex) {
-            throw new RuntimeException("Failed to load resource", ex);
+        BufferedImage toImage() {
+            return ImageUtil.fromPixels(this.pixels, this.width, this.height);
         }
     }
 }
@@ -0,0 +1,789 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.stream.IntStream;
+
+/**
+ * A PNG encoder that writes directly from the ARGB raster of an image.
+ * <p>
+ * Compared to the ImageIO PNG writer this allows picking the deflate level
+ * and filter heuristic, writes the smallest lossless color type the image
+ * allows (palette or RGB) and compresses large images in parallel.
+ * <p>
+ * Instances are safe to share between threads once configured.
+ */
+public final class PngEncoder {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final int COLOR_RGB = 2;
+    private static final int COLOR_PALETTE = 3;
+    private static final int COLOR_RGBA = 6;
+
+    private static final int IDAT_SIZE = 64 * 1024;
+    private static final int CHUNK_TARGET_SIZE = 256 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    // Same default level as the ImageIO writer, higher levels are much slower for little gain on textures
+    private int compressionLevel = 4;
+    private Filter filter = Filter.ADAPTIVE;
+    private Strategy strategy = Strategy.DEFAULT;
+    private boolean reduceColorType = true;
+    private int parallelThreshold = 1024 * 1024;
+
+    /**
+     * Sets the deflate compression level, from 0 (no compression)
+     * to 9 (best compression), or -1 for the deflate default.
+     *
+     * @param compressionLevel the compression level
+     * @return this instance
+     */
+    public PngEncoder compressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9, got " + compressionLevel);
+        }
+
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Sets the filter applied to each row before compression.
+     *
+     * @param filter the filter
+     * @return this instance
+     */
+    public PngEncoder filter(@NotNull Filter filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Sets the deflate strategy used to compress the filtered rows.
+     *
+     * @param strategy the strategy
+     * @return this instance
+     */
+    public PngEncoder strategy(@NotNull Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    /**
+     * Sets whether the encoder may write images as palette or RGB
+     * when that is lossless, instead of always writing RGBA. Palettes
+     * of up to 16 colors are written with fewer bits per pixel.
+     * <p>
+     * Grayscale color types are never written, as ImageIO decodes them
+     * through a linear color space, which would shift the values of any
+     * texture that is read back.
+     *
+     * @param reduceColorType whether to reduce the color type
+     * @return this instance
+     */
+    public PngEncoder reduceColorType(boolean reduceColorType) {
+        this.reduceColorType = reduceColorType;
+        return this;
+    }
+
+    /**
+     * Sets the amount of pixels from which an image is compressed
+     * in parallel chunks. Values of zero or below disable parallel
+     * compression.
+     *
+     * @param parallelThreshold the pixel threshold
+     * @return this instance
+     */
+    public PngEncoder parallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    public int compressionLevel() {
+        return this.compressionLevel;
+    }
+
+    @NotNull
+    public Filter filter() {
+        return this.filter;
+    }
+
+    @NotNull
+    public Strategy strategy() {
+        return this.strategy;
+    }
+
+    public boolean reduceColorType() {
+        return this.reduceColorType;
+    }
+
+    public int parallelThreshold() {
+        return this.parallelThreshold;
+    }
+
+    /**
+     * Creates a copy of this encoder, which later changes
+     * to this encoder do not affect.
+     *
+     * @return the copy
+     */
+    @NotNull
+    public PngEncoder copy() {
+        PngEncoder copy = new PngEncoder();
+        copy.compressionLevel = this.compressionLevel;
+        copy.filter = this.filter;
+        copy.strategy = this.strategy;
+        copy.reduceColorType = this.reduceColorType;
+        copy.parallelThreshold = this.parallelThreshold;
+        return copy;
+    }
+
+    /**
+     * Encodes the given image to a PNG.
+     *
+     * @param image the image to encode
+     * @return the encoded image
+     * @throws IOException if an error occurs while encoding
+     */
+    public byte @NotNull [] encode(@NotNull BufferedImage image) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        this.encode(image, stream);
+        return stream.toByteArray();
+    }
+
+    /**
+     * Encodes the given image to a PNG, writing it to the given stream.
+     * The stream is not closed.
+     *
+     * @param image the image to encode
+     * @param stream the stream to write to
+     * @throws IOException if an error occurs while encoding
+     */
+    public void encode(@NotNull BufferedImage image, @NotNull OutputStream stream) throws IOException {
+        this.encode(ImageUtil.pixels(image), image.getWidth(), image.getHeight(), stream);
+    }
+
+    /**
+     * Encodes the given non-premultiplied ARGB pixels to a PNG,
+     * writing it to the given stream. The stream is not closed.
+     *
+     * @param pixels the pixels, row by row
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param stream the stream to write to
+     * @throws IOException if an error occurs while encoding
+     */
+    public void encode(int @NotNull [] pixels, int width, int height, @NotNull OutputStream stream) throws IOException {
+        if (width <= 0 || height <= 0 || pixels.length < width * height) {
+            throw new IllegalArgumentException("Invalid image size " + width + "x" + height + " for " + pixels.length + " pixels");
+        }
+
+        Layout layout = this.reduceColorType ? Layout.analyze(pixels, width, height) : Layout.rgba();
+        int stride = (width * layout.bitsPerPixel() + 7) / 8;
+
+        // Palette images compress best unfiltered, the adaptive heuristic is meant for true color
+        Filter filter = layout.colorType() == COLOR_PALETTE && this.filter == Filter.ADAPTIVE ? Filter.NONE : this.filter;
+
+        stream.write(SIGNATURE);
+
+        byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = (byte) layout.bitDepth();
+        header[9] = (byte) layout.colorType();
+        writeChunk(stream, "IHDR", header, header.length);
+
+        if (layout.colorType() == COLOR_PALETTE) {
+            int[] palette = layout.palette();
+            byte[] plte = new byte[palette.length * 3];
+            int transparent = 0;
+            for (int i = 0; i < palette.length; i++) {
+                plte[i * 3] = (byte) (palette[i] >> 16);
+                plte[i * 3 + 1] = (byte) (palette[i] >> 8);
+                plte[i * 3 + 2] = (byte) palette[i];
+                if (palette[i] >>> 24 != 0xFF) {
+                    transparent = i + 1;
+                }
+            }
+
+            writeChunk(stream, "PLTE", plte, plte.length);
+
+            // Entries are sorted by alpha, so only the leading translucent ones need a tRNS entry
+            if (transparent > 0) {
+                byte[] trns = new byte[transparent];
+                for (int i = 0; i < transparent; i++) {
+                    trns[i] = (byte) (palette[i] >>> 24);
+                }
+
+                writeChunk(stream, "tRNS", trns, trns.length);
+            }
+        }
+
+        IdatOutputStream idat = new IdatOutputStream(stream);
+        if (this.parallelThreshold > 0 && (long) width * height >= this.parallelThreshold && height > 1) {
+            this.compressParallel(pixels, width, height, layout, filter, stride, idat);
+        } else {
+            this.compressSerial(pixels, width, height, layout, filter, stride, idat);
+        }
+        idat.finish();
+
+        writeChunk(stream, "IEND", new byte[0], 0);
+    }
+
+    private void compressSerial(int[] pixels, int width, int height, Layout layout, Filter filter, int stride, OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(this.compressionLevel);
+        deflater.setStrategy(this.strategy.value);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, IDAT_SIZE)) {
+            RowFilter rowFilter = new RowFilter(stride, layout.bytesPerPixel());
+            for (int y = 0; y < height; y++) {
+                rowFilter.filter(pixels, width, y, layout, filter);
+                deflate.write(rowFilter.output, 0, stride + 1);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void compressParallel(int[] pixels, int width, int height, Layout layout, Filter filter, int stride, OutputStream out) throws IOException {
+        int rowSize = stride + 1;
+        int rowsPerChunk = Math.max(1, CHUNK_TARGET_SIZE / rowSize);
+        int chunks = (height + rowsPerChunk - 1) / rowsPerChunk;
+
+        // Filtering only depends on the source pixels, so every chunk can be filtered on its own
+        byte[] filtered = new byte[Math.multiplyExact(rowSize, height)];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            RowFilter rowFilter = new RowFilter(stride, layout.bytesPerPixel());
+            int end = Math.min(height, (chunk + 1) * rowsPerChunk);
+            for (int y = chunk * rowsPerChunk; y < end; y++) {
+                rowFilter.filter(pixels, width, y, layout, filter);
+                System.arraycopy(rowFilter.output, 0, filtered, y * rowSize, rowSize);
+            }
+        });
+
+        // Each chunk is compressed into a raw deflate stream primed with the tail of the previous
+        // chunk, and all but the last are sync flushed so they end on a byte boundary and can
+        // simply be concatenated behind a single zlib header
+        byte[][] compressed = new byte[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int start = chunk * rowsPerChunk * rowSize;
+            int end = Math.min(height, (chunk + 1) * rowsPerChunk) * rowSize;
+
+            Deflater deflater = new Deflater(this.compressionLevel, true);
+            deflater.setStrategy(this.strategy.value);
+            try {
+                if (start > 0) {
+                    int dictionaryStart = Math.max(0, start - DICTIONARY_SIZE);
+                    deflater.setDictionary(filtered, dictionaryStart, start - dictionaryStart);
+                }
+
+                deflater.setInput(filtered, start, end - start);
+                boolean last = chunk == chunks - 1;
+                if (last) {
+                    deflater.finish();
+                }
+
+                ByteArrayOutputStream chunkOut = new ByteArrayOutputStream((end - start) / 2);
+                byte[] buffer = new byte[IDAT_SIZE];
+                while (true) {
+                    int length = last ? deflater.deflate(buffer) : deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    chunkOut.write(buffer, 0, length);
+                    if (last ? deflater.finished() : length < buffer.length) {
+                        break;
+                    }
+                }
+
+                compressed[chunk] = chunkOut.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        });
+
+        Adler32 adler = new Adler32();
+        adler.update(filtered, 0, filtered.length);
+
+        out.write(zlibHeader(this.compressionLevel));
+        for (byte[] chunk : compressed) {
+            out.write(chunk);
+        }
+
+        byte[] trailer = new byte[4];
+        writeInt(trailer, 0, (int) adler.getValue());
+        out.write(trailer);
+    }
+
+    private static byte[] zlibHeader(int compressionLevel) {
+        // CMF: deflate with a 32K window. FLEVEL is informational only
+        int level = switch (compressionLevel) {
+            case 0, 1 -> 0;
+            case 2, 3, 4, 5 -> 1;
+            case -1, 6 -> 2;
+            default -> 3;
+        };
+
+        int cmf = 0x78;
+        int flg = level << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        return new byte[] { (byte) cmf, (byte) flg };
+    }
+
+    private static void writeChunk(OutputStream stream, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+        byte[] lengthBytes = new byte[4];
+        writeInt(lengthBytes, 0, length);
+        stream.write(lengthBytes);
+        stream.write(typeBytes);
+        stream.write(data, 0, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        byte[] crcBytes = new byte[4];
+        writeInt(crcBytes, 0, (int) crc.getValue());
+        stream.write(crcBytes);
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    /**
+     * The filter applied to each row of the image before compression.
+     */
+    public enum Filter {
+        /**
+         * No filtering, fastest.
+         */
+        NONE,
+        /**
+         * Difference to the pixel on the left.
+         */
+        SUB,
+        /**
+         * Difference to the pixel above.
+         */
+        UP,
+        /**
+         * Difference to the average of the left and above pixels.
+         */
+        AVERAGE,
+        /**
+         * Difference to the Paeth predictor of the left, above and upper left pixels.
+         */
+        PAETH,
+        /**
+         * Picks the filter with the smallest sum of absolute differences for
+         * every row. Usually the smallest output, at the cost of trying all filters.
+         */
+        ADAPTIVE
+    }
+
+    /**
+     * The deflate strategy used to compress the filtered rows.
+     */
+    public enum Strategy {
+        /**
+         * The default deflate strategy.
+         */
+        DEFAULT(Deflater.DEFAULT_STRATEGY),
+        /**
+         * Favors Huffman coding over string matching, which can
+         * suit filtered rows of small differences.
+         */
+        FILTERED(Deflater.FILTERED),
+        /**
+         * Only Huffman coding, without any string matching.
+         */
+        HUFFMAN_ONLY(Deflater.HUFFMAN_ONLY);
+
+        private final int value;
+
+        Strategy(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The color type an image is written as, along with its palette.
+     *
+     * @param colorType the PNG color type
+     * @param bitDepth the bits per sample
+     * @param bytesPerPixel the bytes per pixel used for filtering, at least one
+     * @param palette the palette sorted so translucent entries come first, or null
+     * @param indices the palette index for every pixel, or null
+     */
+    private record Layout(int colorType, int bitDepth, int bytesPerPixel, int[] palette, byte[] indices) {
+        private static final int MAX_PALETTE_SIZE = 256;
+
+        static Layout rgba() {
+            return new Layout(COLOR_RGBA, 8, 4, null, null);
+        }
+
+        int bitsPerPixel() {
+            return this.colorType == COLOR_PALETTE ? this.bitDepth : this.bytesPerPixel * 8;
+        }
+
+        static Layout analyze(int[] pixels, int width, int height) {
+            int length = width * height;
+
+            boolean opaque = true;
+
+            // Small open addressing table of the distinct colors, abandoned once it overflows
+            int[] table = new int[MAX_PALETTE_SIZE * 2];
+            boolean[] used = new boolean[table.length];
+            int colors = 0;
+
+            for (int i = 0; i < length; i++) {
+                int argb = pixels[i];
+                if (opaque && argb >>> 24 != 0xFF) {
+                    opaque = false;
+                }
+
+                if (colors <= MAX_PALETTE_SIZE && (i == 0 || argb != pixels[i - 1])) {
+                    int slot = hash(argb) & (table.length - 1);
+                    while (used[slot] && table[slot] != argb) {
+                        slot = (slot + 1) & (table.length - 1);
+                    }
+
+                    if (!used[slot]) {
+                        used[slot] = true;
+                        table[slot] = argb;
+                        colors++;
+                    }
+                }
+            }
+
+            if (colors <= MAX_PALETTE_SIZE) {
+                return palette(pixels, length, table, used, colors);
+            }
+
+            return opaque ? new Layout(COLOR_RGB, 8, 3, null, null) : rgba();
+        }
+
+        private static Layout palette(int[] pixels, int length, int[] table, boolean[] used, int colors) {
+            int[] palette = new int[colors];
+            int index = 0;
+            for (int i = 0; i < table.length; i++) {
+                if (used[i]) {
+                    palette[index++] = table[i];
+                }
+            }
+
+            // Translucent colors first so the tRNS chunk can be kept short
+            Integer[] boxed = Arrays.stream(palette).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, (a, b) -> {
+                boolean aOpaque = a >>> 24 == 0xFF;
+                boolean bOpaque = b >>> 24 == 0xFF;
+                if (aOpaque != bOpaque) {
+                    return aOpaque ? 1 : -1;
+                }
+
+                return Integer.compareUnsigned(a, b);
+            });
+
+            for (int i = 0; i < boxed.length; i++) {
+                palette[i] = boxed[i];
+            }
+
+            // Reuse the hash table to map colors to their palette index
+            byte[] slotIndices = new byte[table.length];
+            for (int i = 0; i < palette.length; i++) {
+                slotIndices[slot(table, used, palette[i])] = (byte) i;
+            }
+
+            byte[] indices = new byte[length];
+            int previous = 0;
+            byte previousIndex = 0;
+            for (int i = 0; i < length; i++) {
+                int argb = pixels[i];
+                if (i == 0 || argb != previous) {
+                    previous = argb;
+                    previousIndex = slotIndices[slot(table, used, argb)];
+                }
+
+                indices[i] = previousIndex;
+            }
+
+            int bitDepth = colors <= 2 ? 1 : colors <= 4 ? 2 : colors <= 16 ? 4 : 8;
+            return new Layout(COLOR_PALETTE, bitDepth, 1, palette, indices);
+        }
+
+        private static int slot(int[] table, boolean[] used, int argb) {
+            int slot = hash(argb) & (table.length - 1);
+            while (used[slot] && table[slot] != argb) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+
+            return slot;
+        }
+
+        private static int hash(int argb) {
+            int hash = argb * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * Converts rows of pixels into filtered PNG scanlines. Not thread safe,
+     * every thread uses its own instance.
+     */
+    private static class RowFilter {
+        private final int stride;
+        private final int bytesPerPixel;
+
+        private byte[] current;
+        private byte[] previous;
+        private final byte[] output;
+        private final byte[][] candidates;
+        private int previousRow = -1;
+
+        RowFilter(int stride, int bytesPerPixel) {
+            this.stride = stride;
+            this.bytesPerPixel = bytesPerPixel;
+            this.current = new byte[stride];
+            this.previous = new byte[stride];
+            this.output = new byte[stride + 1];
+            this.candidates = new byte[5][stride + 1];
+        }
+
+        void filter(int[] pixels, int width, int y, Layout layout, Filter filter) {
+            // Rows are usually visited in order, so the previous row can be reused
+            if (y == 0) {
+                Arrays.fill(this.previous, (byte) 0);
+            } else if (this.previousRow == y - 1) {
+                byte[] swap = this.previous;
+                this.previous = this.current;
+                this.current = swap;
+            } else {
+                unpack(pixels, width, y - 1, layout, this.previous);
+            }
+
+            unpack(pixels, width, y, layout, this.current);
+            this.previousRow = y;
+
+            if (filter != Filter.ADAPTIVE) {
+                apply(filter, this.current, this.previous, this.output);
+                return;
+            }
+
+            long best = Long.MAX_VALUE;
+            byte[] bestRow = null;
+            for (Filter candidate : Filter.values()) {
+                if (candidate == Filter.ADAPTIVE) {
+                    continue;
+                }
+
+                byte[] row = this.candidates[candidate.ordinal()];
+                apply(candidate, this.current, this.previous, row);
+
+                long sum = 0;
+                for (int i = 1; i < row.length && sum < best; i++) {
+                    sum += Math.abs((int) row[i]);
+                }
+
+                if (sum < best) {
+                    best = sum;
+                    bestRow = row;
+                }
+            }
+
+            System.arraycopy(bestRow, 0, this.output, 0, this.output.length);
+        }
+
+        private void apply(Filter filter, byte[] row, byte[] above, byte[] out) {
+            int bpp = this.bytesPerPixel;
+            out[0] = (byte) filter.ordinal();
+            switch (filter) {
+                case NONE -> System.arraycopy(row, 0, out, 1, this.stride);
+                case SUB -> {
+                    for (int i = 0; i < this.stride; i++) {
+                        int left = i >= bpp ? row[i - bpp] & 0xFF : 0;
+                        out[i + 1] = (byte) ((row[i] & 0xFF) - left);
+                    }
+                }
+                case UP -> {
+                    for (int i = 0; i < this.stride; i++) {
+                        out[i + 1] = (byte) ((row[i] & 0xFF) - (above[i] & 0xFF));
+                    }
+                }
+                case AVERAGE -> {
+                    for (int i = 0; i < this.stride; i++) {
+                        int left = i >= bpp ? row[i - bpp] & 0xFF : 0;
+                        out[i + 1] = (byte) ((row[i] & 0xFF) - ((left + (above[i] & 0xFF)) >>> 1));
+                    }
+                }
+                case PAETH -> {
+                    for (int i = 0; i < this.stride; i++) {
+                        int left = i >= bpp ? row[i - bpp] & 0xFF : 0;
+                        int up = above[i] & 0xFF;
+                        int upLeft = i >= bpp ? above[i - bpp] & 0xFF : 0;
+                        out[i + 1] = (byte) ((row[i] & 0xFF) - paeth(left, up, upLeft));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported filter " + filter);
+            }
+        }
+
+        private static int paeth(int a, int b, int c) {
+            int p = a + b - c;
+            int pa = Math.abs(p - a);
+            int pb = Math.abs(p - b);
+            int pc = Math.abs(p - c);
+            if (pa <= pb && pa <= pc) {
+                return a;
+            }
+
+            return pb <= pc ? b : c;
+        }
+
+        private static void unpack(int[] pixels, int width, int y, Layout layout, byte[] out) {
+            int offset = y * width;
+            switch (layout.colorType()) {
+                case COLOR_PALETTE -> {
+                    int bitDepth = layout.bitDepth();
+                    if (bitDepth == 8) {
+                        System.arraycopy(layout.indices(), offset, out, 0, width);
+                        break;
+                    }
+
+                    // Pack the indices into the high bits first, as the PNG spec lays out sub-byte samples
+                    int perByte = 8 / bitDepth;
+                    for (int x = 0, i = 0; x < width; i++) {
+                        int packed = 0;
+                        for (int j = 0; j < perByte; j++, x++) {
+                            packed <<= bitDepth;
+                            if (x < width) {
+                                packed |= layout.indices()[offset + x];
+                            }
+                        }
+
+                        out[i] = (byte) packed;
+                    }
+                }
+                case COLOR_RGB -> {
+                    for (int x = 0, i = 0; x < width; x++) {
+                        int argb = pixels[offset + x];
+                        out[i++] = (byte) (argb >> 16);
+                        out[i++] = (byte) (argb >> 8);
+                        out[i++] = (byte) argb;
+                    }
+                }
+                default -> {
+                    for (int x = 0, i = 0; x < width; x++) {
+                        int argb = pixels[offset + x];
+                        out[i++] = (byte) (argb >> 16);
+                        out[i++] = (byte) (argb >> 8);
+                        out[i++] = (byte) argb;
+                        out[i++] = (byte) (argb >>> 24);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the compressed image data into IDAT chunks.
+     */
+    private static class IdatOutputStream extends OutputStream {
+        private final OutputStream stream;
+        private final byte[] buffer = new byte[IDAT_SIZE];
+        private int length;
+
+        IdatOutputStream(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.length == this.buffer.length) {
+                this.flushChunk();
+            }
+
+            this.buffer[this.length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte @NotNull [] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (this.length == this.buffer.length) {
+                    this.flushChunk();
+                }
+
+                int count = Math.min(length, this.buffer.length - this.length);
+                System.arraycopy(data, offset, this.buffer, this.length, count);
+                this.length += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        void finish() throws IOException {
+            if (this.length > 0) {
+                this.flushChunk();
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            writeChunk(this.stream, "IDAT", this.buffer, this.length);
+            this.length = 0;
+        }
+    }
+
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream stream;
+
+        NonClosingOutputStream(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.stream.write(b);
+        }
+
+        @Override
+        public void write(byte @NotNull [] data, int offset, int length) throws IOException {
+            this.stream.write(data, offset, length);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Losslessly shrinks PNG files after they have been written, by
+ * re-encoding them with every combination of filter and deflate
+ * strategy and keeping the smallest result.
+ * <p>
+ * Palette and bit depth reduction as well as alpha stripping are
+ * handled by the {@link PngEncoder} for every candidate, so this mostly
+ * searches for the best filter and compression. Files are optimized in
+ * parallel, and files that have not been started once the time budget
+ * runs out are left as they are.
+ */
+public final class PngOptimizer {
+    private int compressionLevel = 9;
+    private Duration timeBudget = Duration.ofSeconds(60);
+
+    /**
+     * Sets the deflate compression level every candidate is encoded with.
+     *
+     * @param compressionLevel the compression level
+     * @return this instance
+     */
+    public PngOptimizer compressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9, got " + compressionLevel);
+        }
+
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Sets how long a single {@link #optimize(Collection)} call may take.
+     * Files that are still waiting once it runs out are skipped.
+     *
+     * @param timeBudget the time budget
+     * @return this instance
+     */
+    public PngOptimizer timeBudget(@NotNull Duration timeBudget) {
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    public int compressionLevel() {
+        return this.compressionLevel;
+    }
+
+    @NotNull
+    public Duration timeBudget() {
+        return this.timeBudget;
+    }
+
+    /**
+     * Creates a copy of this optimizer, which later changes
+     * to this optimizer do not affect.
+     *
+     * @return the copy
+     */
+    @NotNull
+    public PngOptimizer copy() {
+        PngOptimizer copy = new PngOptimizer();
+        copy.compressionLevel = this.compressionLevel;
+        copy.timeBudget = this.timeBudget;
+        return copy;
+    }
+
+    /**
+     * Optimizes the given PNG files in place.
+     *
+     * @param files the files to optimize
+     * @return the result of the optimization
+     */
+    @NotNull
+    public Result optimize(@NotNull Collection<Path> files) {
+        long deadline = System.nanoTime() + this.timeBudget.toNanos();
+        List<PngEncoder> encoders = this.candidates();
+
+        AtomicInteger optimized = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicLong bytesBefore = new AtomicLong();
+        AtomicLong bytesAfter = new AtomicLong();
+
+        files.parallelStream().distinct().forEach(file -> {
+            if (System.nanoTime() - deadline >= 0) {
+                skipped.incrementAndGet();
+                return;
+            }
+
+            try {
+                byte[] original = Files.readAllBytes(file);
+                byte[] smallest = this.optimize(original, encoders, deadline);
+
+                bytesBefore.addAndGet(original.length);
+                bytesAfter.addAndGet(smallest.length);
+                if (smallest != original) {
+                    Files.write(file, smallest);
+                    optimized.incrementAndGet();
+                }
+            } catch (IOException e) {
+                skipped.incrementAndGet();
+            }
+        });
+
+        return new Result(optimized.get(), skipped.get(), bytesBefore.get(), bytesAfter.get());
+    }
+
+    private byte[] optimize(byte[] original, List<PngEncoder> encoders, long deadline) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(original));
+        if (image == null) {
+            throw new IOException("Not a readable image");
+        }
+
+        int[] pixels = ImageUtil.pixels(image);
+
+        byte[] smallest = original;
+        for (PngEncoder encoder : encoders) {
+            // Keep the best candidate found so far once the budget runs out
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream(smallest.length);
+            encoder.encode(pixels, image.getWidth(), image.getHeight(), stream);
+            if (stream.size() < smallest.length) {
+                smallest = stream.toByteArray();
+            }
+        }
+
+        return smallest;
+    }
+
+    private List<PngEncoder> candidates() {
+        List<PngEncoder> encoders = new ArrayList<>();
+        for (PngEncoder.Strategy strategy : PngEncoder.Strategy.values()) {
+            for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+                encoders.add(new PngEncoder()
+                        .compressionLevel(this.compressionLevel)
+                        .strategy(strategy)
+                        .filter(filter)
+                        // Files are already optimized in parallel
+                        .parallelThreshold(0));
+            }
+        }
+
+        return encoders;
+    }
+
+    /**
+     * The result of optimizing a set of files.
+     *
+     * @param optimized the amount of files that were rewritten smaller
+     * @param skipped the amount of files skipped because of the time budget or a read error
+     * @param bytesBefore the combined size of the processed files before optimizing
+     * @param bytesAfter the combined size of the processed files after optimizing
+     */
+    public record Result(int optimized, int skipped, long bytesBefore, long bytesAfter) {
+
+        public long bytesSaved() {
+            return this.bytesBefore - this.bytesAfter;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A declarative plan for rearranging regions of one or more source
+ * textures into a new texture, such as converting a Java entity texture
+ * to the Bedrock layout.
+ * <p>
+ * Plans are written in JSON, with coordinates in the texture space given
+ * by {@code size} and scaled to the actual resolution of the first source:
+ * <pre>{@code
+ * {
+ *   "size": [64, 64],
+ *   "output": [128, 64],
+ *   "sources": ["left", "right"],
+ *   "regions": [
+ *     {"name": "Lid", "source": "right", "from": [x, y, width, height], "to": [x, y], "rotate": 180, "flip": "vertical"}
+ *   ]
+ * }
+ * }</pre>
+ * {@code output} defaults to {@code size}, {@code sources} to a single
+ * unnamed source and {@code source} to the first source. Regions are
+ * drawn in order, flipped ({@code horizontal}, {@code vertical} or
+ * {@code both}) before being rotated counter-clockwise by 90, 180 or 270
+ * degrees, so with a rotation of 90 the top right corner of the region ends
+ * up in the top left corner.
+ * <p>
+ * Each region is compiled to an integer mapping from destination to source
+ * pixels, so the whole plan is applied in a single pass over the output
+ * without creating intermediate images.
+ */
+public final class RemapPlan {
+    private final int width;
+    private final int height;
+    private final int outputWidth;
+    private final int outputHeight;
+    private final List<String> sources;
+    private final List<Region> regions;
+
+    private final Map<Float, List<Blit>> compiled = new ConcurrentHashMap<>();
+
+    private RemapPlan(int width, int height, int outputWidth, int outputHeight, @NotNull List<String> sources, @NotNull List<Region> regions) {
+        this.width = width;
+        this.height = height;
+        this.outputWidth = outputWidth;
+        this.outputHeight = outputHeight;
+        this.sources = List.copyOf(sources);
+        this.regions = List.copyOf(regions);
+    }
+
+    /**
+     * Applies this plan to the given source images, in the order of the
+     * plan's {@code sources}. The scale of the plan is taken from the
+     * width of the first source.
+     *
+     * @param sources the source images
+     * @return the remapped image
+     */
+    @NotNull
+    public BufferedImage apply(@NotNull BufferedImage @NotNull ... sources) {
+        if (sources.length != this.sources.size()) {
+            throw new IllegalArgumentException("Expected " + this.sources.size() + " source images " + this.sources + ", got " + sources.length);
+        }
+
+        float scale = (float) sources[0].getWidth() / this.width;
+
+        int outputWidth = (int) (this.outputWidth * scale);
+        int outputHeight = (int) (this.outputHeight * scale);
+        int[] output = new int[outputWidth * outputHeight];
+
+        int[][] pixels = new int[sources.length][];
+        for (int i = 0; i < sources.length; i++) {
+            pixels[i] = ImageUtil.pixels(sources[i]);
+        }
+
+        for (Blit blit : this.compiled.computeIfAbsent(scale, this::compile)) {
+            BufferedImage source = sources[blit.source()];
+            blit.draw(pixels[blit.source()], source.getWidth(), source.getHeight(), output, outputWidth, outputHeight);
+        }
+
+        return ImageUtil.fromPixels(output, outputWidth, outputHeight);
+    }
+
+    private List<Blit> compile(float scale) {
+        List<Blit> blits = new ArrayList<>(this.regions.size());
+        for (Region region : this.regions) {
+            blits.add(region.compile(scale));
+        }
+
+        return blits;
+    }
+
+    /**
+     * Gets the width of the texture space the plan's coordinates are in.
+     *
+     * @return the width
+     */
+    public int width() {
+        return this.width;
+    }
+
+    /**
+     * Gets the height of the texture space the plan's coordinates are in.
+     *
+     * @return the height
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * Gets the names of the sources this plan expects, in order.
+     *
+     * @return the source names
+     */
+    @NotNull
+    public List<String> sources() {
+        return this.sources;
+    }
+
+    /**
+     * Reads a plan from the given reader.
+     *
+     * @param reader the reader to read from
+     * @return the plan
+     */
+    @NotNull
+    public static RemapPlan read(@NotNull Reader reader) {
+        JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+
+        int[] size = ints(json.getAsJsonArray("size"), 2);
+        int[] output = json.has("output") ? ints(json.getAsJsonArray("output"), 2) : size;
+
+        List<String> sources = new ArrayList<>();
+        if (json.has("sources")) {
+            for (JsonElement source : json.getAsJsonArray("sources")) {
+                sources.add(source.getAsString());
+            }
+        } else {
+            sources.add("");
+        }
+
+        List<Region> regions = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("regions")) {
+            JsonObject object = element.getAsJsonObject();
+            String name = object.has("name") ? object.get("name").getAsString() : "region " + regions.size();
+
+            int source = 0;
+            if (object.has("source")) {
+                source = sources.indexOf(object.get("source").getAsString());
+                if (source == -1) {
+                    throw new IllegalArgumentException("Unknown source " + object.get("source").getAsString() + " in " + name);
+                }
+            }
+
+            int rotate = object.has("rotate") ? object.get("rotate").getAsInt() : 0;
+            if (rotate % 90 != 0) {
+                throw new IllegalArgumentException("Rotation of " + name + " must be a multiple of 90 degrees, got " + rotate);
+            }
+
+            boolean flipX = false;
+            boolean flipY = false;
+            if (object.has("flip")) {
+                switch (object.get("flip").getAsString()) {
+                    case "horizontal" -> flipX = true;
+                    case "vertical" -> flipY = true;
+                    case "both" -> flipX = flipY = true;
+                    default -> throw new IllegalArgumentException("Unknown flip " + object.get("flip").getAsString() + " in " + name);
+                }
+            }
+
+            regions.add(new Region(
+                    source,
+                    ints(object.getAsJsonArray("from"), 4),
+                    ints(object.getAsJsonArray("to"), 2),
+                    Math.floorMod(rotate, 360),
+                    flipX,
+                    flipY
+            ));
+        }
+
+        return new RemapPlan(size[0], size[1], output[0], output[1], sources, regions);
+    }
+
+    /**
+     * Loads a bundled plan from {@code /mappings/remap/<name>.json}.
+     *
+     * @param name the name of the plan
+     * @return the plan
+     */
+    @NotNull
+    public static RemapPlan load(@NotNull String name) {
+        String path = "/mappings/remap/" + name + ".json";
+        InputStream stream = RemapPlan.class.getResourceAsStream(path);
+        if (stream == null) {
+            throw new RuntimeException("Could not find remap plan " + path + "!");
+        }
+
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return read(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load remap plan " + path + "!", e);
+        }
+    }
+
+    private static int[] ints(JsonArray array, int length) {
+        if (array.size() != length) {
+            throw new IllegalArgumentException("Expected " + length + " values, got " + array);
+        }
+
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = array.get(i).getAsInt();
+        }
+
+        return values;
+    }
+
+    private record Region(int source, int[] from, int[] to, int rotate, boolean flipX, boolean flipY) {
+
+        Blit compile(float scale) {
+            int fromX = (int) (this.from[0] * scale);
+            int fromY = (int) (this.from[1] * scale);
+            int width = (int) (this.from[2] * scale);
+            int height = (int) (this.from[3] * scale);
+
+            boolean swap = this.rotate == 90 || this.rotate == 270;
+            int destinationWidth = swap ? height : width;
+            int destinationHeight = swap ? width : height;
+
+            // Source position within the (flipped) region for destination position (u, v):
+            // x = xu * u + xv * v + x0, y = yu * u + yv * v + y0
+            int xu, xv, x0, yu, yv, y0;
+            switch (this.rotate) {
+                case 90 -> {
+                    xu = 0; xv = -1; x0 = width - 1;
+                    yu = 1; yv = 0; y0 = 0;
+                }
+                case 180 -> {
+                    xu = -1; xv = 0; x0 = width - 1;
+                    yu = 0; yv = -1; y0 = height - 1;
+                }
+                case 270 -> {
+                    xu = 0; xv = 1; x0 = 0;
+                    yu = -1; yv = 0; y0 = height - 1;
+                }
+                default -> {
+                    xu = 1; xv = 0; x0 = 0;
+                    yu = 0; yv = 1; y0 = 0;
+                }
+            }
+
+            // Undo the flip, which is applied before rotating
+            if (this.flipX) {
+                xu = -xu; xv = -xv; x0 = width - 1 - x0;
+            }
+
+            if (this.flipY) {
+                yu = -yu; yv = -yv; y0 = height - 1 - y0;
+            }
+
+            return new Blit(
+                    this.source,
+                    (int) (this.to[0] * scale), (int) (this.to[1] * scale), destinationWidth, destinationHeight,
+                    fromX, fromY, width, height,
+                    xu, xv, fromX + x0, yu, yv, fromY + y0
+            );
+        }
+    }
+
+    private record Blit(int source, int x, int y, int width, int height,
+                        int fromX, int fromY, int fromWidth, int fromHeight,
+                        int xu, int xv, int x0, int yu, int yv, int y0) {
+
+        void draw(int[] source, int sourceWidth, int sourceHeight, int[] destination, int destinationWidth, int destinationHeight) {
+            int minX = Math.max(0, -this.x);
+            int minY = Math.max(0, -this.y);
+            int maxX = Math.min(this.width, destinationWidth - this.x);
+            int maxY = Math.min(this.height, destinationHeight - this.y);
+
+            // Pixels outside both the region and the source image are left untouched
+            int clipX = Math.min(this.fromX + this.fromWidth, sourceWidth);
+            int clipY = Math.min(this.fromY + this.fromHeight, sourceHeight);
+
+            for (int v = minY; v < maxY; v++) {
+                int destinationIndex = (this.y + v) * destinationWidth + this.x;
+                int sx = this.xu * minX + this.xv * v + this.x0;
+                int sy = this.yu * minX + this.yv * v + this.y0;
+                for (int u = minX; u < maxX; u++, sx += this.xu, sy += this.yu) {
+                    if (sx < this.fromX || sy < this.fromY || sx >= clipX || sy >= clipY) {
+                        continue;
+                    }
+
+                    int index = destinationIndex + u;
+                    destination[index] = Compositor.srcOver(source[sy * sourceWidth + sx], destination[index]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+/**
+ * Resamples ARGB rasters to a new size using separable filters.
+ * <p>
+ * Filtering is done on premultiplied alpha, so fully transparent
+ * pixels do not bleed their color into their neighbours.
+ */
+public final class Resampler {
+    // Images with at least this many destination pixels are resampled row-parallel
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    private Resampler() {
+    }
+
+    /**
+     * Resamples the given image to the given size.
+     *
+     * @param image the image to resample
+     * @param width the target width
+     * @param height the target height
+     * @param filter the filter to use
+     * @return the resampled image
+     */
+    @NotNull
+    public static BufferedImage resample(@NotNull BufferedImage image, int width, int height, @NotNull Filter filter) {
+        int[] pixels = resample(ImageUtil.pixels(image), image.getWidth(), image.getHeight(), width, height, filter);
+        return ImageUtil.fromPixels(pixels, width, height);
+    }
+
+    /**
+     * Resamples the given non-premultiplied ARGB pixels to the given size.
+     *
+     * @param pixels the pixels, row by row
+     * @param sourceWidth the width of the source
+     * @param sourceHeight the height of the source
+     * @param width the target width
+     * @param height the target height
+     * @param filter the filter to use
+     * @return the resampled pixels
+     */
+    public static int @NotNull [] resample(int @NotNull [] pixels, int sourceWidth, int sourceHeight, int width, int height, @NotNull Filter filter) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid target size " + width + "x" + height);
+        }
+
+        if (sourceWidth == width && sourceHeight == height) {
+            return pixels.clone();
+        }
+
+        // Every destination pixel lies within a single source pixel when scaling up by whole factors
+        if (filter == Filter.BOX && width % sourceWidth == 0 && height % sourceHeight == 0) {
+            return replicate(pixels, sourceWidth, sourceHeight, width / sourceWidth, height / sourceHeight);
+        }
+
+        Weights horizontal = Weights.compute(sourceWidth, width, filter);
+        Weights vertical = Weights.compute(sourceHeight, height, filter);
+        boolean parallel = (long) width * height >= PARALLEL_THRESHOLD;
+
+        // Horizontal pass, every source row into premultiplied float channels
+        float[] intermediate = new float[width * sourceHeight * 4];
+        rows(sourceHeight, parallel).forEach(y -> {
+            int rowOffset = y * sourceWidth;
+            int outOffset = y * width * 4;
+            for (int x = 0; x < width; x++) {
+                float a = 0, r = 0, g = 0, b = 0;
+                int start = horizontal.start[x];
+                int count = horizontal.count[x];
+                int weightOffset = x * horizontal.size;
+                for (int i = 0; i < count; i++) {
+                    float weight = horizontal.weights[weightOffset + i];
+                    int argb = pixels[rowOffset + start + i];
+                    float alpha = (argb >>> 24) * weight;
+                    a += alpha;
+                    r += ((argb >> 16) & 0xFF) * alpha;
+                    g += ((argb >> 8) & 0xFF) * alpha;
+                    b += (argb & 0xFF) * alpha;
+                }
+
+                int index = outOffset + x * 4;
+                intermediate[index] = a;
+                intermediate[index + 1] = r;
+                intermediate[index + 2] = g;
+                intermediate[index + 3] = b;
+            }
+        });
+
+        // Vertical pass, into the destination rows
+        int[] result = new int[width * height];
+        rows(height, parallel).forEach(y -> {
+            int start = vertical.start[y];
+            int count = vertical.count[y];
+            int weightOffset = y * vertical.size;
+            for (int x = 0; x < width; x++) {
+                float a = 0, r = 0, g = 0, b = 0;
+                for (int i = 0; i < count; i++) {
+                    float weight = vertical.weights[weightOffset + i];
+                    int index = ((start + i) * width + x) * 4;
+                    a += intermediate[index] * weight;
+                    r += intermediate[index + 1] * weight;
+                    g += intermediate[index + 2] * weight;
+                    b += intermediate[index + 3] * weight;
+                }
+
+                result[y * width + x] = unpremultiply(a, r, g, b);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Scales the given pixels up by whole factors, repeating every
+     * pixel the given amount of times along each axis.
+     *
+     * @param pixels the pixels, row by row
+     * @param width the width of the source
+     * @param height the height of the source
+     * @param factorX the horizontal factor
+     * @param factorY the vertical factor
+     * @return the scaled pixels
+     */
+    public static int @NotNull [] replicate(int @NotNull [] pixels, int width, int height, int factorX, int factorY) {
+        int newWidth = width * factorX;
+        int[] scaled = new int[newWidth * height * factorY];
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * factorY * newWidth;
+            for (int x = 0; x < width; x++) {
+                int argb = pixels[y * width + x];
+                int offset = rowStart + x * factorX;
+                for (int i = 0; i < factorX; i++) {
+                    scaled[offset + i] = argb;
+                }
+            }
+
+            for (int i = 1; i < factorY; i++) {
+                System.arraycopy(scaled, rowStart, scaled, rowStart + i * newWidth, newWidth);
+            }
+        }
+
+        return scaled;
+    }
+
+    private static IntStream rows(int count, boolean parallel) {
+        IntStream stream = IntStream.range(0, count);
+        return parallel ? stream.parallel() : stream;
+    }
+
+    private static int unpremultiply(float a, float r, float g, float b) {
+        int alpha = clamp((int) (a + 0.5f));
+        if (alpha == 0) {
+            return 0;
+        }
+
+        float inverse = 1 / a;
+        return alpha << 24 | clamp((int) (r * inverse + 0.5f)) << 16 | clamp((int) (g * inverse + 0.5f)) << 8 | clamp((int) (b * inverse + 0.5f));
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : Math.min(value, 255);
+    }
+
+    /**
+     * The filter used when resampling.
+     */
+    public enum Filter {
+        /**
+         * Averages the source pixels by how much of their area is covered
+         * by the destination pixel. Matches the area averaging of
+         * {@link java.awt.Image#SCALE_SMOOTH}, and keeps pixel art sharp
+         * when scaling up by whole factors.
+         */
+        BOX(0.5) {
+            @Override
+            double weight(double x) {
+                return x >= -0.5 && x < 0.5 ? 1 : 0;
+            }
+        },
+        /**
+         * Linear interpolation between the nearest pixels.
+         */
+        BILINEAR(1) {
+            @Override
+            double weight(double x) {
+                x = Math.abs(x);
+                return x < 1 ? 1 - x : 0;
+            }
+        },
+        /**
+         * Windowed sinc over three pixels on either side. Sharpest
+         * result, at the cost of slight ringing on hard edges.
+         */
+        LANCZOS3(3) {
+            @Override
+            double weight(double x) {
+                x = Math.abs(x);
+                if (x < 1e-8) {
+                    return 1;
+                }
+
+                if (x >= 3) {
+                    return 0;
+                }
+
+                double pix = Math.PI * x;
+                return 3 * Math.sin(pix) * Math.sin(pix / 3) / (pix * pix);
+            }
+        };
+
+        private final double support;
+
+        Filter(double support) {
+            this.support = support;
+        }
+
+        abstract double weight(double x);
+    }
+
+    /**
+     * The contributions of the source pixels to every destination pixel along one axis.
+     *
+     * @param start the first contributing source pixel of each destination pixel
+     * @param count the amount of contributing source pixels of each destination pixel
+     * @param weights the normalized weights, {@code size} slots per destination pixel
+     * @param size the amount of weight slots per destination pixel
+     */
+    private record Weights(int[] start, int[] count, float[] weights, int size) {
+
+        static Weights compute(int sourceSize, int size, Filter filter) {
+            double scale = (double) sourceSize / size;
+            double filterScale = Math.max(1, scale);
+            double support = filter.support * filterScale;
+            int maxSize = (int) Math.ceil(support * 2) + 2;
+
+            int[] start = new int[size];
+            int[] count = new int[size];
+            float[] weights = new float[size * maxSize];
+            for (int i = 0; i < size; i++) {
+                double center = (i + 0.5) * scale;
+                int left = Math.max(0, (int) Math.floor(center - support));
+                int right = Math.min(sourceSize, (int) Math.ceil(center + support));
+
+                double total = 0;
+                double[] contributions = new double[right - left];
+                for (int j = left; j < right; j++) {
+                    double weight;
+                    if (filter == Filter.BOX) {
+                        // Exact overlap of the source pixel with the destination pixel
+                        double from = Math.max(j, i * scale);
+                        double to = Math.min(j + 1, (i + 1) * scale);
+                        weight = Math.max(0, to - from);
+                    } else {
+                        weight = filter.weight((j + 0.5 - center) / filterScale);
+                    }
+
+                    contributions[j - left] = weight;
+                    total += weight;
+                }
+
+                // Skip source pixels that do not contribute at the edges of the window
+                int first = 0;
+                int last = contributions.length - 1;
+                while (first < last && contributions[first] == 0) {
+                    first++;
+                }
+
+                while (last > first && contributions[last] == 0) {
+                    last--;
+                }
+
+                start[i] = left + first;
+                count[i] = total == 0 ? 0 : last - first + 1;
+                for (int j = 0; j < count[i]; j++) {
+                    weights[i * maxSize + j] = (float) (contributions[first + j] / total);
+                }
+            }
+
+            return new Weights(start, count, weights, maxSize);
+        }
+    }
+}
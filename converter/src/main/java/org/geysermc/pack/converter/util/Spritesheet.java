@@ -28,6 +28,7 @@ package org.geysermc.pack.converter.util;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
@@ -69,18 +70,33 @@ public class Spritesheet {
         }
 
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = null;
 
         int y = 0;
         for (Image[] row : this.rows) {
             int x = 0;
             for (Image sprite : row) {
-                image.getGraphics().drawImage(sprite, x, y, null);
+                if (sprite instanceof BufferedImage bufferedSprite) {
+                    Compositor.draw(image, bufferedSprite, x, y);
+                } else {
+                    // Other image types can only be drawn through Java2D
+                    if (graphics == null) {
+                        graphics = image.getGraphics();
+                    }
+
+                    graphics.drawImage(sprite, x, y, null);
+                }
+
                 x += sprite.getWidth(null);
             }
 
             y += firstPresent(row).getHeight(null);
         }
 
+        if (graphics != null) {
+            graphics.dispose();
+        }
+
         return image;
     }
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes 32-bit true color TGA images directly from the ARGB
+ * raster of an image, optionally run-length encoded.
+ */
+public final class TgaWriter {
+    private static final int HEADER_SIZE = 18;
+    private static final int TYPE_TRUE_COLOR = 2;
+    private static final int TYPE_TRUE_COLOR_RLE = 10;
+    private static final int MAX_PACKET_LENGTH = 128;
+
+    private TgaWriter() {
+    }
+
+    /**
+     * Writes the given image as a TGA to the given stream.
+     * The stream is not closed.
+     *
+     * @param image the image to write
+     * @param rle whether to run-length encode the image data
+     * @param stream the stream to write to
+     * @throws IOException if an error occurs while writing
+     */
+    public static void write(@NotNull BufferedImage image, boolean rle, @NotNull OutputStream stream) throws IOException {
+        write(ImageUtil.pixels(image), image.getWidth(), image.getHeight(), rle, stream);
+    }
+
+    /**
+     * Writes the given non-premultiplied ARGB pixels as a TGA to
+     * the given stream. The stream is not closed.
+     *
+     * @param pixels the pixels, row by row
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param rle whether to run-length encode the image data
+     * @param stream the stream to write to
+     * @throws IOException if an error occurs while writing
+     */
+    public static void write(int @NotNull [] pixels, int width, int height, boolean rle, @NotNull OutputStream stream) throws IOException {
+        if (width <= 0 || height <= 0 || width > 0xFFFF || height > 0xFFFF || pixels.length < width * height) {
+            throw new IllegalArgumentException("Invalid TGA image size " + width + "x" + height);
+        }
+
+        byte[] header = new byte[HEADER_SIZE];
+        header[2] = (byte) (rle ? TYPE_TRUE_COLOR_RLE : TYPE_TRUE_COLOR);
+        header[12] = (byte) width;
+        header[13] = (byte) (width >>> 8);
+        header[14] = (byte) height;
+        header[15] = (byte) (height >>> 8);
+        header[16] = 32; // Bits per pixel
+        header[17] = 8; // Alpha bits, with the default bottom left origin
+        stream.write(header);
+
+        // Worst case for RLE is one raw packet header per 128 pixels
+        byte[] row = new byte[width * 4 + (width + MAX_PACKET_LENGTH - 1) / MAX_PACKET_LENGTH];
+        for (int y = height - 1; y >= 0; y--) {
+            int length = rle ? encodeRle(pixels, y * width, width, row) : encodeRaw(pixels, y * width, width, row);
+            stream.write(row, 0, length);
+        }
+    }
+
+    private static int encodeRaw(int[] pixels, int offset, int width, byte[] out) {
+        int index = 0;
+        for (int x = 0; x < width; x++) {
+            index = writePixel(pixels[offset + x], out, index);
+        }
+
+        return index;
+    }
+
+    private static int encodeRle(int[] pixels, int offset, int width, byte[] out) {
+        // Packets may not cross rows, so every row is encoded on its own
+        int index = 0;
+        int x = 0;
+        while (x < width) {
+            int argb = pixels[offset + x];
+            int run = 1;
+            while (x + run < width && run < MAX_PACKET_LENGTH && pixels[offset + x + run] == argb) {
+                run++;
+            }
+
+            if (run > 1) {
+                out[index++] = (byte) (0x80 | (run - 1));
+                index = writePixel(argb, out, index);
+                x += run;
+                continue;
+            }
+
+            // Gather pixels until the next run of at least two
+            int raw = 1;
+            while (x + raw < width && raw < MAX_PACKET_LENGTH
+                    && (x + raw + 1 >= width || pixels[offset + x + raw] != pixels[offset + x + raw + 1])) {
+                raw++;
+            }
+
+            out[index++] = (byte) (raw - 1);
+            for (int i = 0; i < raw; i++) {
+                index = writePixel(pixels[offset + x + i], out, index);
+            }
+
+            x += raw;
+        }
+
+        return index;
+    }
+
+    private static int writePixel(int argb, byte[] out, int index) {
+        out[index++] = (byte) argb; // Blue
+        out[index++] = (byte) (argb >>> 8); // Green
+        out[index++] = (byte) (argb >>> 16); // Red
+        out[index++] = (byte) (argb >>> 24); // Alpha
+        return index;
+    }
+}
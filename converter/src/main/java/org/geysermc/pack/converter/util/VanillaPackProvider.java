@@ -116,6 +116,28 @@ public final class VanillaPackProvider {
         }
     }
 
+    /**
+     * Creates the vanilla pack from a client jar that is already on disk,
+     * so the converter can be used without network access.
+     *
+     * @param clientJar The client jar to create the pack from.
+     * @param path The path to create the pack at.
+     * @throws IOException if an I/O error occurs
+     */
+    public static void createFromClientJar(@NotNull Path clientJar, @NotNull Path path, @NotNull LogListener log) throws IOException {
+        // Pack already exists; do nothing
+        if (Files.exists(path)) {
+            log.debug("Vanilla jar already exists, skipping creation from client jar");
+            return;
+        }
+
+        log.info("Creating vanilla jar from " + clientJar + "...");
+        Files.copy(clientJar, path);
+        // Clean the jar
+        clean(path, log);
+        log.info("Created vanilla jar!");
+    }
+
     /**
      * Strips the jar of all files that are not needed for pack conversion
      * and cleans up the jar of any potentially problematic files.
@@ -28,12 +28,13 @@ package org.geysermc.pack.converter.util;
 
 import org.geysermc.pack.converter.PackConverter;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -57,43 +58,23 @@ public class ZipUtils {
     }
 
     public void zipIt(LogListener listener, String zipFile) {
-        byte[] buffer = new byte[1024];
-        String source = sourceFolder.getName();
-        FileOutputStream fos = null;
-        ZipOutputStream zos = null;
-        try {
-            fos = new FileOutputStream(zipFile);
-            zos = new ZipOutputStream(fos);
-
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile)))) {
             listener.debug("Output to zip " + zipFile);
-            FileInputStream in = null;
 
-            for (String file: this.fileList) {
+            // Identical files are still stored once per path, Bedrock looks every file up by its own
+            // path and zip entries cannot share their data
+            for (String file : this.fileList) {
                 listener.debug("File added " + file);
+
                 ZipEntry ze = new ZipEntry(file);
                 zos.putNextEntry(ze);
-                try {
-                    in = new FileInputStream(sourceFolder + File.separator + file);
-                    int len;
-                    while ((len = in .read(buffer)) > 0) {
-                        zos.write(buffer, 0, len);
-                    }
-                } finally {
-                    if (in != null)
-                        in.close();
-                }
+                Files.copy(new File(sourceFolder, file).toPath(), zos);
+                zos.closeEntry();
             }
 
-            zos.closeEntry();
             listener.debug("Folder successfully compressed");
         } catch (IOException ex) {
-            ex.printStackTrace();
-        } finally {
-            try {
-                zos.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            listener.error("Failed to compress " + sourceFolder + " to " + zipFile, ex);
         }
     }
 
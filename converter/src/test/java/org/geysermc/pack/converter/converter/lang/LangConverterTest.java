@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.converter.lang;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LangConverterTest {
+
+    @Test
+    public void testUnchangedValuesKeepTheirInstance() {
+        String plain = "Stone";
+        assertSame(plain, LangConverter.convertFormat(plain));
+
+        String string = "Hello %s";
+        assertSame(string, LangConverter.convertFormat(string));
+    }
+
+    @Test
+    public void testIntegerSpecifiers() {
+        assertEquals("%s", LangConverter.convertFormat("%d"));
+        assertEquals("Level %s of %s", LangConverter.convertFormat("Level %d of %d"));
+    }
+
+    @Test
+    public void testPositionalSpecifiers() {
+        assertEquals("%1 and %2", LangConverter.convertFormat("%1$s and %2$s"));
+        assertEquals("%10", LangConverter.convertFormat("%10$s"));
+        assertEquals("%1", LangConverter.convertFormat("%1$d"));
+        assertEquals("%s%s%1%s", LangConverter.convertFormat("%d%d%1$s%s"));
+    }
+
+    @Test
+    public void testEscapedPercent() {
+        assertEquals("%%d", LangConverter.convertFormat("%%d"));
+        assertEquals("%%1$s", LangConverter.convertFormat("%%1$s"));
+        assertEquals("50%% of %s", LangConverter.convertFormat("50%% of %d"));
+    }
+
+    @Test
+    public void testIncompleteSpecifiers() {
+        assertEquals("100%", LangConverter.convertFormat("100%"));
+        assertEquals("%", LangConverter.convertFormat("%"));
+        assertEquals("%12 apples", LangConverter.convertFormat("%12 apples"));
+        assertEquals("%$s", LangConverter.convertFormat("%$s"));
+        assertEquals("x%1$", LangConverter.convertFormat("x%1$"));
+        assertEquals("%1$x", LangConverter.convertFormat("%1$x"));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.converter.lang;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link LangConverter#convertFormat(String)} against the replace
+ * and regex implementation it replaced, on a single thread.
+ * <p>
+ * Given a directory, every {@code .json} file in a {@code lang} directory
+ * below it is used, such as the language files of a Minecraft installation.
+ * Otherwise 100 synthetic languages of 7000 keys are generated, where about
+ * 10% of the values have format specifiers.
+ */
+public class LangFormatBenchmark {
+    private static final Pattern POSITIONAL_STRING = Pattern.compile("%([0-9]+)\\$s");
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        List<String[]> languages = args.length > 0 ? read(Paths.get(args[0])) : generate();
+        long values = languages.stream().mapToLong(language -> language.length).sum();
+        System.out.printf("%d languages, %d values%n", languages.size(), values);
+
+        // The legacy conversion differs on escaped percent signs and %N$d, which are now handled
+        int differences = 0;
+        for (String[] language : languages) {
+            for (String value : language) {
+                if (!legacy(value).equals(LangConverter.convertFormat(value))) {
+                    differences++;
+                }
+            }
+        }
+        System.out.printf("%d values convert differently%n", differences);
+
+        long[] legacy = new long[ROUNDS];
+        long[] singlePass = new long[ROUNDS];
+        long sink = 0;
+        for (int round = -ROUNDS; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String[] language : languages) {
+                for (String value : language) {
+                    sink += legacy(value).length();
+                }
+            }
+
+            long middle = System.nanoTime();
+            for (String[] language : languages) {
+                for (String value : language) {
+                    sink += LangConverter.convertFormat(value).length();
+                }
+            }
+
+            // The first half of the rounds only warms up
+            if (round >= 0) {
+                legacy[round] = middle - start;
+                singlePass[round] = System.nanoTime() - middle;
+            }
+        }
+
+        Arrays.sort(legacy);
+        Arrays.sort(singlePass);
+        System.out.printf("replace + regex %8.1f ms%n", legacy[ROUNDS / 2] / 1e6);
+        System.out.printf("single pass     %8.1f ms%n", singlePass[ROUNDS / 2] / 1e6);
+        System.out.printf("(median of %d rounds, %d)%n", ROUNDS, sink);
+    }
+
+    private static String legacy(String value) {
+        value = value.replace("%d", "%s");
+        return POSITIONAL_STRING.matcher(value).replaceAll("%$1");
+    }
+
+    private static List<String[]> read(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .filter(file -> file.getParent() != null && file.getParent().getFileName() != null
+                            && file.getParent().getFileName().toString().equals("lang"))
+                    .sorted()
+                    .toList();
+        }
+
+        List<String[]> languages = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                JsonObject object = JsonParser.parseReader(reader).getAsJsonObject();
+                languages.add(object.entrySet().stream()
+                        .map(Map.Entry::getValue)
+                        .filter(JsonElement::isJsonPrimitive)
+                        .map(JsonElement::getAsString)
+                        .toArray(String[]::new));
+            }
+        }
+
+        if (languages.isEmpty()) {
+            throw new IllegalArgumentException("No language files found in " + directory);
+        }
+
+        return languages;
+    }
+
+    private static List<String[]> generate() {
+        Random random = new Random(7);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz \u00e9\u00e0\u00fc\u00df\u6f22\u5b57";
+
+        List<String[]> languages = new ArrayList<>(100);
+        for (int language = 0; language < 100; language++) {
+            String[] values = new String[7000];
+            for (int key = 0; key < values.length; key++) {
+                StringBuilder builder = new StringBuilder();
+                int length = 5 + random.nextInt(40);
+                for (int i = 0; i < length; i++) {
+                    builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+
+                int specifier = random.nextInt(100);
+                if (specifier < 6) {
+                    builder.insert(random.nextInt(builder.length()), "%s");
+                } else if (specifier < 8) {
+                    builder.insert(random.nextInt(builder.length()), "%d");
+                } else if (specifier < 10) {
+                    builder.insert(random.nextInt(builder.length()), "%1$s");
+                    builder.append(" %2$s");
+                }
+
+                values[key] = builder.toString();
+            }
+
+            languages.add(values);
+        }
+
+        return languages;
+    }
+}
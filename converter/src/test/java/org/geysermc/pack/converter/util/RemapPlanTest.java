@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.pack.converter.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares the remap plans against images written by the transformers
+ * they replaced, for random source textures at 64 and 128 pixels.
+ * <p>
+ * The old transformers rotated regions with an AffineTransformOp, which
+ * shifted regions with an odd width or height by a pixel. The expected
+ * images were written with that rotation replaced by an exact one, which
+ * only changes the 64 pixel images, as every rotated region is even sized
+ * at 128 pixels.
+ */
+public class RemapPlanTest {
+
+    @Test
+    public void testDolphin() throws IOException {
+        for (int size : new int[] { 64, 128 }) {
+            assertMatches("dolphin", size, RemapPlan.load("dolphin").apply(source(size, 1)));
+        }
+    }
+
+    @Test
+    public void testBed() throws IOException {
+        for (int size : new int[] { 64, 128 }) {
+            assertMatches("bed", size, RemapPlan.load("bed").apply(source(size, 2)));
+        }
+    }
+
+    @Test
+    public void testChestDouble() throws IOException {
+        for (int size : new int[] { 64, 128 }) {
+            assertMatches("chest_double", size, RemapPlan.load("chest_double").apply(source(size, 3), source(size, 4)));
+        }
+    }
+
+    @Test
+    public void testRotationIsCounterClockwise() {
+        RemapPlan plan = RemapPlan.read(new StringReader("""
+                {"size": [2, 2], "regions": [{"from": [0, 0, 2, 2], "to": [0, 0], "rotate": 90}]}
+                """));
+
+        BufferedImage source = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(1, 0, 0xFFFF0000);
+
+        // The top right corner ends up in the top left corner
+        assertEquals(0xFFFF0000, plan.apply(source).getRGB(0, 0));
+    }
+
+    // Random opaque pixels, with every eighth pixel left transparent
+    private static BufferedImage source(int size, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int rgb = random.nextInt(0x1000000);
+                image.setRGB(x, y, random.nextInt(8) == 0 ? 0 : 0xFF000000 | rgb);
+            }
+        }
+
+        return image;
+    }
+
+    private static void assertMatches(String name, int size, BufferedImage actual) throws IOException {
+        BufferedImage expected;
+        try (InputStream stream = RemapPlanTest.class.getResourceAsStream("/remap/" + name + "_" + size + ".png")) {
+            assertNotNull(stream, "Missing expected image for " + name + " at " + size);
+            expected = ImageIO.read(stream);
+        }
+
+        assertEquals(expected.getWidth(), actual.getWidth(), name + " width at " + size);
+        assertEquals(expected.getHeight(), actual.getHeight(), name + " height at " + size);
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(argb(expected.getRGB(x, y)), argb(actual.getRGB(x, y)), name + " at " + size + ", pixel " + x + "," + y);
+            }
+        }
+    }
+
+    // Fully transparent pixels are equal whatever their color
+    private static String argb(int pixel) {
+        return String.format("%08X", (pixel >>> 24) == 0 ? 0 : pixel);
+    }
+}
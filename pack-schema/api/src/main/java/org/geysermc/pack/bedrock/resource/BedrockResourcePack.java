@@ -44,6 +44,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -51,7 +52,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.geysermc.pack.util.FileUtil.exportJson;
-import static org.geysermc.pack.util.FileUtil.exportProperties;
+import static org.geysermc.pack.util.FileUtil.exportLang;
 
 /**
  * Represents a Bedrock resource pack.
@@ -501,16 +502,28 @@ public class BedrockResourcePack {
     }
 
     /**
-     * Exports the resource pack to the specified directory.
+     * Exports only the manifest of the resource pack to the specified directory.
+     * <p>
+     * This can be used to update the manifest of an already exported pack.
      *
-     * @throws IOException if an error occurs while exporting the resource pack
+     * @throws IOException if an error occurs while exporting the manifest
      */
-    public void export() throws IOException {
+    public void exportManifest() throws IOException {
         if (this.manifest == null) {
             throw new NullPointerException("Pack manifest cannot be null");
         }
 
         exportJson(GSON, this.directory.resolve("manifest.json"), this.manifest);
+    }
+
+    /**
+     * Exports the resource pack to the specified directory.
+     *
+     * @throws IOException if an error occurs while exporting the resource pack
+     */
+    public void export() throws IOException {
+        this.exportManifest();
+
         if (this.icon != null) {
             Files.write(this.directory.resolve("pack_icon.png"), this.icon);
         }
@@ -558,8 +571,17 @@ public class BedrockResourcePack {
         if (this.languages != null) {
             exportJson(GSON, this.directory.resolve("texts/languages.json"), this.languages.languageCodes());
 
-            for (Map.Entry<String, Map<String, String>> language : this.languages.languages().entrySet()) {
-                exportProperties(this.directory.resolve("texts/" + language.getKey() + ".lang"), language.getValue());
+            // Languages are independent of each other, and packs can ship well over a hundred
+            try {
+                this.languages.languages().entrySet().parallelStream().forEach(language -> {
+                    try {
+                        exportLang(this.directory.resolve("texts/" + language.getKey() + ".lang"), language.getValue());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
         }
 
@@ -31,10 +31,13 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
-import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Utility class for files.
@@ -63,6 +66,16 @@ public class FileUtil {
         }
     }
 
+    /**
+     * Exports the specified properties to the given location.
+     *
+     * @param location the location to export the properties to
+     * @param properties the properties to export
+     * @throws IOException if an I/O error occurs
+     * @deprecated escapes values the way Java properties do, which Bedrock
+     *             does not understand. Use {@link #exportLang(Path, Map)} instead
+     */
+    @Deprecated
     public static void exportProperties(@NotNull Path location, @NotNull Map<String, String> properties) throws IOException {
         if (Files.notExists(location.getParent())) {
             Files.createDirectories(location.getParent());
@@ -76,4 +89,52 @@ public class FileUtil {
         propertiesFile.putAll(properties);
         propertiesFile.store(Files.newOutputStream(location), null);
     }
+
+    /**
+     * Exports the specified translations to the given location as a
+     * Bedrock .lang file.
+     * <p>
+     * Entries are written sorted by key, one per line, as UTF-8. Line
+     * breaks in values are written as {@code \n}, as Bedrock reads
+     * every line as a single entry; nothing else is escaped.
+     *
+     * @param location the location to export the translations to
+     * @param translations the translations to export
+     * @throws IOException if an I/O error occurs
+     */
+    public static void exportLang(@NotNull Path location, @NotNull Map<String, String> translations) throws IOException {
+        if (Files.notExists(location.getParent())) {
+            Files.createDirectories(location.getParent());
+        }
+
+        Map<String, String> sorted = translations instanceof SortedMap<String, String> ? translations : new TreeMap<>(translations);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(location, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('=');
+                writeLangValue(writer, entry.getValue());
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static void writeLangValue(@NotNull Writer writer, @NotNull String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\n' && c != '\r') {
+                continue;
+            }
+
+            writer.write(value, start, i - start);
+            if (c == '\n') {
+                writer.write("\\n");
+            }
+
+            start = i + 1;
+        }
+
+        writer.write(value, start, value.length() - start);
+    }
 }